@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.charts;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+
+/**
+ * Starts the JavaFX platform once per benchmark JVM and runs code on the
+ * FX application thread. Everything that takes snapshots or creates popups
+ * has to run on that thread. On machines without a display start the
+ * benchmarks with -Dglass.platform=Monocle -Dmonocle.platform=Headless -Dprism.order=sw
+ */
+public class FxThread {
+    private static boolean started;
+
+
+    // ******************** Constructors **************************************
+    private FxThread() {}
+
+
+    // ******************** Methods *******************************************
+    public static synchronized void start() {
+        if (started) { return; }
+        CountDownLatch latch = new CountDownLatch(1);
+        try {
+            Platform.startup(latch::countDown);
+        } catch (IllegalStateException e) {
+            // Platform was already started
+            latch.countDown();
+        }
+        Platform.setImplicitExit(false);
+        await(latch);
+        started = true;
+    }
+
+    public static void run(final Runnable RUNNABLE) {
+        call(() -> {
+            RUNNABLE.run();
+            return null;
+        });
+    }
+
+    public static <T> T call(final Callable<T> CALLABLE) {
+        if (Platform.isFxApplicationThread()) {
+            try {
+                return CALLABLE.call();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+        start();
+        AtomicReference<T>         result = new AtomicReference<>();
+        AtomicReference<Exception> error  = new AtomicReference<>();
+        CountDownLatch             latch  = new CountDownLatch(1);
+        Platform.runLater(() -> {
+            try {
+                result.set(CALLABLE.call());
+            } catch (Exception e) {
+                error.set(e);
+            } finally {
+                latch.countDown();
+            }
+        });
+        await(latch);
+        if (null != error.get()) { throw new RuntimeException(error.get()); }
+        return result.get();
+    }
+
+    private static void await(final CountDownLatch LATCH) {
+        try {
+            LATCH.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+}
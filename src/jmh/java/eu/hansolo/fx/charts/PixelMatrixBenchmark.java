@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.charts;
+
+import eu.hansolo.fx.charts.PixelMatrix.PixelShape;
+import eu.hansolo.fx.charts.PixelMatrix.Renderer;
+import javafx.scene.paint.Color;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures the update of a PixelMatrix with the different renderers.
+ * updatePixels changes a few pixels and draws the matrix like a LED
+ * display would do, updateAllPixels changes every pixel of the matrix
+ * like a matrix heatmap would do and scrollLeft shifts the matrix by one
+ * column and sets the new column like a ticker would do.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PixelMatrixBenchmark {
+    private static final int CHANGED_PIXELS = 16;
+
+    @Param({ "32", "128", "256" })
+    public int        size;
+
+    @Param({ "SHAPES", "IMAGE" })
+    public Renderer   renderer;
+
+    @Param({ "SQUARE", "ROUND" })
+    public PixelShape pixelShape;
+
+    private PixelMatrix pixelMatrix;
+    private Random      rnd;
+
+
+    @Setup public void setup() {
+        rnd         = new Random(42);
+        pixelMatrix = FxThread.call(() -> {
+            PixelMatrix matrix = PixelMatrixBuilder.create()
+                                                   .prefSize(800, 800)
+                                                   .colsAndRows(size, size)
+                                                   .pixelShape(pixelShape)
+                                                   .renderer(renderer)
+                                                   .pixelOnColor(Color.RED)
+                                                   .pixelOffColor(Color.BLACK)
+                                                   .build();
+            matrix.resize(800, 800);
+            return matrix;
+        });
+    }
+
+    @Benchmark public void updatePixels() {
+        for (int i = 0 ; i < CHANGED_PIXELS ; i++) {
+            pixelMatrix.setPixel(rnd.nextInt(size), rnd.nextInt(size), rnd.nextInt() | 0xFF000000);
+        }
+        pixelMatrix.drawMatrix();
+    }
+
+    @Benchmark public void updateAllPixels() {
+        for (int y = 0 ; y < size ; y++) {
+            for (int x = 0 ; x < size ; x++) {
+                pixelMatrix.setPixel(x, y, rnd.nextInt() | 0xFF000000);
+            }
+        }
+        pixelMatrix.drawMatrix();
+    }
+
+    @Benchmark public void scrollLeft() {
+        pixelMatrix.shiftLeft();
+        for (int y = 0 ; y < size ; y++) {
+            pixelMatrix.setPixel(size - 1, y, rnd.nextInt() | 0xFF000000);
+        }
+        pixelMatrix.drawMatrix();
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.charts;
+
+import eu.hansolo.fx.charts.data.XYChartItem;
+import eu.hansolo.fx.charts.series.XYSeries;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures the XYPane draw routines.
+ * GraphicsContext is final and can't be replaced, but the canvas of a pane
+ * that is not part of a scene never gets rendered. Its GraphicsContext only
+ * records the draw commands into the canvas buffer (which is reset by the
+ * clearRect() at the start of every redraw), so the benchmark measures the
+ * work the pane does to create the commands and not the rendering itself.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class XYPaneBenchmark {
+    @Param({ "100", "1000", "10000" })
+    public int       size;
+
+    @Param({ "LINE", "AREA", "SCATTER", "SMOOTH_LINE", "SMOOTH_AREA", "RIDGE_LINE" })
+    public ChartType chartType;
+
+    private XYPane<XYChartItem> xyPane;
+
+
+    @Setup public void setup() {
+        Random            rnd   = new Random(42);
+        List<XYChartItem> items = new ArrayList<>(size);
+        for (int i = 0 ; i < size ; i++) {
+            items.add(new XYChartItem(i * 100.0 / size, rnd.nextDouble() * 100));
+        }
+        XYSeries<XYChartItem> series = new XYSeries<>(items, chartType);
+        xyPane = FxThread.call(() -> {
+            XYPane<XYChartItem> pane = new XYPane<>(series);
+            pane.resize(800, 600);
+            return pane;
+        });
+    }
+
+    @Benchmark public void redraw() {
+        xyPane.redraw();
+    }
+}
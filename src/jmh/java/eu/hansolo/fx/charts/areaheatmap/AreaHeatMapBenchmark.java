@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.charts.areaheatmap;
+
+import eu.hansolo.fx.charts.FxThread;
+import eu.hansolo.fx.charts.data.DataPoint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures the interpolation of an AreaHeatMap (getValueAt() for every
+ * sample of the area) by setting the data points, which recreates the hull
+ * and redraws the map with the given renderer. The map has 400 x 400 pixels
+ * and is not refined progressively, so every call computes the complete map.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AreaHeatMapBenchmark {
+    private static final double SIZE = 400;
+
+    @Param({ "10", "50", "200" })
+    public int size;
+
+    @Param({ "FINE", "NORMAL", "POOR" })
+    public AreaHeatMap.Quality quality;
+
+    @Param({ "OVALS", "PIXEL_BUFFER" })
+    public AreaHeatMap.Renderer renderer;
+
+    @Param({ "INVERSE_DISTANCE", "DELAUNAY" })
+    public AreaHeatMap.Interpolation interpolation;
+
+    private AreaHeatMap     areaHeatMap;
+    private List<DataPoint> points;
+
+
+    @Setup public void setup() {
+        Random rnd = new Random(42);
+        points = new ArrayList<>(size);
+        for (int i = 0 ; i < size ; i++) {
+            points.add(new DataPoint(rnd.nextDouble() * SIZE, rnd.nextDouble() * SIZE, rnd.nextDouble() * 100 - 30));
+        }
+        areaHeatMap = FxThread.call(() -> {
+            AreaHeatMap map = new AreaHeatMap(quality);
+            map.setRenderer(renderer);
+            map.setInterpolation(interpolation);
+            map.setProgressive(false);
+            map.resize(SIZE, SIZE);
+            return map;
+        });
+    }
+
+    @Benchmark public void setDataPoints() {
+        FxThread.run(() -> areaHeatMap.setDataPoints(points));
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.charts.data;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures the depth calculation of tree nodes in a random tree with size
+ * nodes and in a chain of size nodes (worst case for the recursion).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TreeNodeBenchmark {
+    @Param({ "100", "1000", "5000" })
+    public int size;
+
+    private TreeNode<ChartItem> treeRoot;
+    private TreeNode<ChartItem> chainLeaf;
+
+
+    @Setup public void setup() {
+        Random                    rnd   = new Random(42);
+        List<TreeNode<ChartItem>> nodes = new ArrayList<>(size);
+        treeRoot = new TreeNode<>(new ChartItem("Root", 0));
+        nodes.add(treeRoot);
+        for (int i = 1 ; i < size ; i++) {
+            nodes.add(new TreeNode<>(new ChartItem("Node " + i, i), nodes.get(rnd.nextInt(nodes.size()))));
+        }
+
+        chainLeaf = new TreeNode<>(new ChartItem("Chain 0", 0));
+        for (int i = 1 ; i < size ; i++) { chainLeaf = new TreeNode<>(new ChartItem("Chain " + i, i), chainLeaf); }
+    }
+
+    @Benchmark public int getMaxLevel() {
+        return treeRoot.getMaxLevel();
+    }
+
+    @Benchmark public int getDepth() {
+        return chainLeaf.getDepth();
+    }
+}
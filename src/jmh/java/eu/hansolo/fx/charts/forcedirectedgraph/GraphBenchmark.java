@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.charts.forcedirectedgraph;
+
+import eu.hansolo.fx.charts.FxThread;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures one step of the Fruchterman-Reingold layout and the betweenness
+ * centrality calculation on a ring of size nodes with size / 2 random chords.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GraphBenchmark {
+    @Param({ "20", "50", "100" })
+    public int size;
+
+    private NodeEdgeModel   nodeEdgeModel;
+    private GraphPanel      graphPanel;
+    private GraphCalculator graphCalculator;
+
+
+    @Setup public void setup() {
+        Random          rnd   = new Random(42);
+        List<GraphNode> nodes = new ArrayList<>(size);
+        List<GraphEdge> edges = new ArrayList<>();
+        for (int i = 0 ; i < size ; i++) { nodes.add(new GraphNode("Node " + i)); }
+        for (int i = 0 ; i < size ; i++) { edges.add(new GraphEdge(nodes.get(i), nodes.get((i + 1) % size))); }
+        for (int i = 0 ; i < size / 2 ; i++) {
+            int from = rnd.nextInt(size);
+            int to   = (from + 2 + rnd.nextInt(size - 3)) % size;
+            edges.add(new GraphEdge(nodes.get(from), nodes.get(to)));
+        }
+        nodeEdgeModel   = new NodeEdgeModel(nodes, edges);
+        graphCalculator = new GraphCalculator();
+        graphPanel      = FxThread.call(() -> {
+            GraphPanel panel = new GraphPanel(nodeEdgeModel);
+            // Stop the animation timer, fruchtermanReingold() stops it if the physics is not active
+            panel.setPhysicsActive(false);
+            panel.fruchtermanReingold();
+            panel.setPhysicsActive(true);
+            return panel;
+        });
+    }
+
+    @Benchmark public void fruchtermanReingold() {
+        // Keep the temperature up, otherwise the layout stops after a few steps
+        graphPanel.resetTemperature();
+        graphPanel.fruchtermanReingold();
+    }
+
+    @Benchmark public void calculateBetweennessCentrality() {
+        graphCalculator.calculateBetweennessCentrality(nodeEdgeModel);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.charts.heatmap;
+
+import eu.hansolo.fx.charts.FxThread;
+import eu.hansolo.fx.charts.tools.ColorMapping;
+import eu.hansolo.fx.charts.tools.Point;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures HeatMap.updateHeatMap(), which is triggered by setColorMapping(),
+ * and adding spots. The heat map has size x size pixels. streamSpot adds a
+ * single spot, which is the typical case when events are streamed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HeatMapBenchmark {
+    private static final int NO_OF_SPOTS = 100;
+
+    @Param({ "100", "400", "800" })
+    public int size;
+
+    @Param({ "CANVAS", "DENSITY_BUFFER", "KDE" })
+    public HeatMap.Engine engine;
+
+    private HeatMap     heatMap;
+    private List<Point> spots;
+    private int         index;
+
+
+    @Setup public void setup() {
+        Random rnd = new Random(42);
+        spots = new ArrayList<>(NO_OF_SPOTS);
+        for (int i = 0 ; i < NO_OF_SPOTS ; i++) { spots.add(new Point(rnd.nextDouble() * size, rnd.nextDouble() * size)); }
+        heatMap = FxThread.call(() -> {
+            HeatMap map = new HeatMap(size, size);
+            map.setEngine(engine);
+            map.setFitWidth(size);
+            map.setFitHeight(size);
+            map.addSpots(spots);
+            return map;
+        });
+    }
+
+    @Benchmark public void updateHeatMap() {
+        FxThread.run(() -> heatMap.setColorMapping(ColorMapping.LIME_YELLOW_RED));
+    }
+
+    @Benchmark public void addSpots() {
+        FxThread.run(() -> {
+            heatMap.clearHeatMap();
+            heatMap.addSpots(spots);
+        });
+    }
+
+    @Benchmark public void streamSpot() {
+        FxThread.run(() -> {
+            Point spot = spots.get(index++ % NO_OF_SPOTS);
+            heatMap.addSpot(spot.getX(), spot.getY());
+        });
+    }
+}
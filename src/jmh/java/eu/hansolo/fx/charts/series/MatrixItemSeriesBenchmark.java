@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.charts.series;
+
+import eu.hansolo.fx.charts.ChartType;
+import eu.hansolo.fx.charts.data.MatrixChartItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures updating every cell of a size x size matrix series cell by cell
+ * with setAt() and row by row with setRow().
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MatrixItemSeriesBenchmark {
+    @Param({ "50", "200", "500" })
+    public int size;
+
+    private MatrixItemSeries<MatrixChartItem> series;
+    private double[]                          row;
+
+
+    @Setup public void setup() {
+        Random                rnd   = new Random(42);
+        List<MatrixChartItem> items = new ArrayList<>(size * size);
+        for (int y = 0 ; y < size ; y++) {
+            for (int x = 0 ; x < size ; x++) { items.add(new MatrixChartItem(x, y, rnd.nextDouble())); }
+        }
+        series = new MatrixItemSeries<>(items, ChartType.MATRIX_HEATMAP);
+        row    = new double[size];
+        for (int x = 0 ; x < size ; x++) { row[x] = rnd.nextDouble(); }
+    }
+
+    @Benchmark public void setAt() {
+        for (int y = 0 ; y < size ; y++) {
+            for (int x = 0 ; x < size ; x++) { series.setAt(x, y, row[x]); }
+        }
+    }
+
+    @Benchmark public void setRow() {
+        for (int y = 0 ; y < size ; y++) { series.setRow(y, 0, row); }
+    }
+}
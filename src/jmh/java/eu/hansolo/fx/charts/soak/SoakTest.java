@@ -0,0 +1,437 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.charts.soak;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import eu.hansolo.fx.charts.Axis;
+import eu.hansolo.fx.charts.ChartType;
+import eu.hansolo.fx.charts.FxThread;
+import eu.hansolo.fx.charts.Grid;
+import eu.hansolo.fx.charts.MatrixPane;
+import eu.hansolo.fx.charts.Position;
+import eu.hansolo.fx.charts.XYChart;
+import eu.hansolo.fx.charts.XYPane;
+import eu.hansolo.fx.charts.areaheatmap.AreaHeatMap;
+import eu.hansolo.fx.charts.data.DataPoint;
+import eu.hansolo.fx.charts.data.MatrixChartItem;
+import eu.hansolo.fx.charts.data.XYChartItem;
+import eu.hansolo.fx.charts.heatmap.HeatMap;
+import eu.hansolo.fx.charts.series.MatrixItemSeries;
+import eu.hansolo.fx.charts.series.XYSeries;
+import eu.hansolo.fx.charts.tools.ChartMetrics;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.geometry.Orientation;
+import javafx.scene.Scene;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.layout.GridPane;
+import javafx.stage.Stage;
+
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Soak test that builds a dashboard out of an XYChart, an area XYChart, a
+ * HeatMap, a MatrixPane and an AreaHeatMap, shows it on a stage and feeds
+ * every chart with synthetic data at a fixed rate for a given time.
+ * At the end it reports p50/p99/max of the frame time (time between two
+ * pulses), the allocation rate of all threads, the GC pauses, the number of updates that
+ * were dropped because the FX thread was still busy with the previous one
+ * and the ChartMetrics of all charts.
+ * Run it with ./gradlew soak, it uses the headless Monocle platform so it
+ * works without a display. Settings (system properties, pass them like
+ * ./gradlew soak -Psoak="-Dsoak.minutes=10 -Dsoak.rate=60"):
+ * soak.minutes     duration of the measurement (default 5)
+ * soak.warmup      seconds of warmup that are not measured (default 30)
+ * soak.rate        updates per second for the xy, heat map and matrix charts (default 30)
+ * soak.areaRate    updates per second for the area heat map (default 2)
+ * soak.points      number of points per xy series (default 1000)
+ * soak.maxP99      if set the process exits with 1 if the p99 frame time in ms is larger
+ */
+public class SoakTest {
+    private static final int                      WIDTH          = 1600;
+    private static final int                      HEIGHT         = 900;
+    private static final int                      MATRIX_COLS    = 60;
+    private static final int                      MATRIX_ROWS    = 20;
+    private static final int                      AREA_POINTS    = 30;
+    private static final int                      MAX_SPOTS      = 2_000;
+    private static final double                   AXIS_WIDTH     = 25;
+    private static final long                     SAMPLE_MS      = 100;
+    private final        double                   minutes;
+    private final        int                      warmup;
+    private final        int                      rate;
+    private final        int                      areaRate;
+    private final        int                      points;
+    private final        double                   maxP99;
+    private final        Random                   rnd;
+    private final        ScheduledExecutorService producer;
+    private final        AtomicLong               updates;
+    private final        AtomicLong               droppedUpdates;
+    private final        List<Long>               gcPauses;
+    private final        Map<Long, Long>          allocations;
+    private              long                     allocatedBytes;
+    private              XYChart<XYChartItem>     lineChart;
+    private              XYSeries<XYChartItem>    lineSeries1;
+    private              XYSeries<XYChartItem>    lineSeries2;
+    private              XYChart<XYChartItem>     areaChart;
+    private              XYSeries<XYChartItem>    areaSeries;
+    private              HeatMap                  heatMap;
+    private              int                      noOfSpots;
+    private              MatrixPane<MatrixChartItem> matrixPane;
+    private              AreaHeatMap              areaHeatMap;
+    private              List<DataPoint>          areaPoints;
+    private              double                   phase;
+    private              AnimationTimer           timer;
+    private              long[]                   frameTimes;
+    private              int                      noOfFrames;
+    private              long                     lastPulse;
+    private volatile     boolean                  measuring;
+
+
+    // ******************** Constructors **************************************
+    public SoakTest() {
+        minutes        = Double.parseDouble(System.getProperty("soak.minutes", "5"));
+        warmup         = Integer.getInteger("soak.warmup", 30);
+        rate           = Math.max(1, Integer.getInteger("soak.rate", 30));
+        areaRate       = Math.max(1, Integer.getInteger("soak.areaRate", 2));
+        points         = Math.max(2, Integer.getInteger("soak.points", 1000));
+        maxP99         = Double.parseDouble(System.getProperty("soak.maxP99", "-1"));
+        rnd            = new Random(42);
+        producer       = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "soak-producer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        updates        = new AtomicLong();
+        droppedUpdates = new AtomicLong();
+        gcPauses       = new ArrayList<>();
+        allocations    = new HashMap<>();
+        frameTimes     = new long[4096];
+    }
+
+
+    // ******************** Methods *******************************************
+    public static void main(final String[] args) throws Exception {
+        boolean passed = new SoakTest().run();
+        Platform.exit();
+        System.exit(passed ? 0 : 1);
+    }
+
+    public boolean run() throws Exception {
+        ChartMetrics.setEnabled(true);
+        FxThread.run(this::createDashboard);
+        registerGcListeners();
+
+        feed(this::updateLineChart, rate);
+        feed(this::updateAreaChart, rate);
+        feed(this::updateHeatMap, rate);
+        feed(this::updateMatrix, rate);
+        feed(this::updateAreaHeatMap, areaRate);
+
+        System.out.printf(Locale.US, "Warmup for %d s%n", warmup);
+        Thread.sleep(warmup * 1_000L);
+
+        // Start measuring
+        FxThread.run(() -> {
+            ChartMetrics.resetAll();
+            noOfFrames = 0;
+            lastPulse  = 0;
+            measuring  = true;
+        });
+        synchronized (gcPauses) { gcPauses.clear(); }
+        updates.set(0);
+        droppedUpdates.set(0);
+        long start = System.nanoTime();
+        startAllocationSampling();
+
+        System.out.printf(Locale.US, "Measuring for %.1f min%n", minutes);
+        Thread.sleep((long) (minutes * 60_000));
+
+        // Stop measuring
+        FxThread.run(() -> {
+            measuring = false;
+            timer.stop();
+        });
+        long duration  = System.nanoTime() - start;
+        producer.shutdownNow();
+        producer.awaitTermination(5, TimeUnit.SECONDS);
+        long allocated = sampleAllocations();
+
+        return report(duration, allocated);
+    }
+
+    private void createDashboard() {
+        // Line chart with two streaming series
+        List<XYChartItem> items1 = new ArrayList<>(points);
+        List<XYChartItem> items2 = new ArrayList<>(points);
+        for (int i = 0 ; i < points ; i++) {
+            items1.add(new XYChartItem(i, 50));
+            items2.add(new XYChartItem(i, 50));
+        }
+        lineSeries1 = new XYSeries<>(items1, ChartType.LINE);
+        lineSeries2 = new XYSeries<>(items2, ChartType.LINE);
+        lineChart   = createXYChart(new XYPane<>(lineSeries1, lineSeries2));
+
+        // Area chart with one streaming series
+        List<XYChartItem> items3 = new ArrayList<>(points);
+        for (int i = 0 ; i < points ; i++) { items3.add(new XYChartItem(i, 50)); }
+        areaSeries = new XYSeries<>(items3, ChartType.SMOOTH_AREA);
+        areaChart  = createXYChart(new XYPane<>(areaSeries));
+
+        // Heat map that gets new spots
+        heatMap = new HeatMap(WIDTH / 3.0, HEIGHT / 2.0);
+        heatMap.setFitWidth(WIDTH / 3.0);
+        heatMap.setFitHeight(HEIGHT / 2.0);
+
+        // Matrix heat map with changing cells
+        List<MatrixChartItem> matrixItems = new ArrayList<>(MATRIX_COLS * MATRIX_ROWS);
+        for (int y = 0 ; y < MATRIX_ROWS ; y++) {
+            for (int x = 0 ; x < MATRIX_COLS ; x++) { matrixItems.add(new MatrixChartItem(x, y, rnd.nextDouble())); }
+        }
+        matrixPane = new MatrixPane<>(new MatrixItemSeries<>(matrixItems, ChartType.MATRIX_HEATMAP));
+        matrixPane.getMatrix().setColsAndRows(MATRIX_COLS, MATRIX_ROWS);
+
+        // Area heat map with moving data points
+        areaPoints = new ArrayList<>(AREA_POINTS);
+        for (int i = 0 ; i < AREA_POINTS ; i++) {
+            areaPoints.add(new DataPoint(rnd.nextDouble() * WIDTH / 3.0, rnd.nextDouble() * HEIGHT / 2.0, rnd.nextDouble() * 100 - 30));
+        }
+        areaHeatMap = new AreaHeatMap();
+        areaHeatMap.setDataPoints(areaPoints);
+
+        GridPane pane = new GridPane();
+        pane.add(lineChart, 0, 0);
+        pane.add(areaChart, 1, 0);
+        pane.add(heatMap, 2, 0);
+        pane.add(matrixPane, 0, 1);
+        pane.add(areaHeatMap, 1, 1);
+        lineChart.setPrefSize(WIDTH / 3.0, HEIGHT / 2.0);
+        areaChart.setPrefSize(WIDTH / 3.0, HEIGHT / 2.0);
+        matrixPane.setPrefSize(WIDTH / 3.0, HEIGHT / 2.0);
+        areaHeatMap.setPrefSize(WIDTH / 3.0, HEIGHT / 2.0);
+
+        Stage stage = new Stage();
+        stage.setTitle("Soak test");
+        stage.setScene(new Scene(pane, WIDTH, HEIGHT));
+        stage.show();
+
+        // The pulse interval is the frame time, a pulse that takes longer delays the next one
+        timer = new AnimationTimer() {
+            @Override public void handle(final long now) {
+                if (!measuring) { return; }
+                if (lastPulse > 0) { addFrameTime(now - lastPulse); }
+                lastPulse = now;
+            }
+        };
+        timer.start();
+    }
+
+    private XYChart<XYChartItem> createXYChart(final XYPane<XYChartItem> XY_PANE) {
+        Axis xAxis = new Axis(0, points - 1, Orientation.HORIZONTAL, Position.BOTTOM);
+        xAxis.setPrefHeight(AXIS_WIDTH);
+        AnchorPane.setBottomAnchor(xAxis, 0d);
+        AnchorPane.setLeftAnchor(xAxis, AXIS_WIDTH);
+        AnchorPane.setRightAnchor(xAxis, 0d);
+
+        Axis yAxis = new Axis(0, 100, Orientation.VERTICAL, Position.LEFT);
+        yAxis.setPrefWidth(AXIS_WIDTH);
+        AnchorPane.setTopAnchor(yAxis, 0d);
+        AnchorPane.setBottomAnchor(yAxis, AXIS_WIDTH);
+        AnchorPane.setLeftAnchor(yAxis, 0d);
+
+        return new XYChart<>(XY_PANE, new Grid(xAxis, yAxis), yAxis, xAxis);
+    }
+
+    // Schedules the given update at the given rate, an update is dropped if the previous one was not processed yet
+    private void feed(final Runnable UPDATE, final int RATE) {
+        AtomicBoolean pending = new AtomicBoolean();
+        producer.scheduleAtFixedRate(() -> {
+            if (!pending.compareAndSet(false, true)) {
+                droppedUpdates.incrementAndGet();
+                return;
+            }
+            Platform.runLater(() -> {
+                try {
+                    UPDATE.run();
+                    updates.incrementAndGet();
+                } finally {
+                    pending.set(false);
+                }
+            });
+        }, 0, 1_000_000 / RATE, TimeUnit.MICROSECONDS);
+    }
+
+    private void updateLineChart() {
+        phase += 0.05;
+        shift(lineSeries1, 50 + 40 * Math.sin(phase) + rnd.nextGaussian() * 3);
+        shift(lineSeries2, 50 + 30 * Math.cos(phase * 0.7) + rnd.nextGaussian() * 3);
+        lineSeries1.refresh();
+        lineSeries2.refresh();
+    }
+
+    private void updateAreaChart() {
+        shift(areaSeries, 50 + 45 * Math.sin(phase * 0.3) * Math.cos(phase * 1.7));
+        areaSeries.refresh();
+    }
+
+    // Moves all y values one step to the left and sets the new value at the end
+    private void shift(final XYSeries<XYChartItem> SERIES, final double VALUE) {
+        List<XYChartItem> items = SERIES.getItems();
+        for (int i = 0, n = items.size() - 1 ; i < n ; i++) { items.get(i).setY(items.get(i + 1).getY()); }
+        items.get(items.size() - 1).setY(Math.max(0, Math.min(100, VALUE)));
+    }
+
+    private void updateHeatMap() {
+        if (noOfSpots >= MAX_SPOTS) {
+            heatMap.clearHeatMap();
+            noOfSpots = 0;
+        }
+        heatMap.addSpot(rnd.nextDouble() * heatMap.getFitWidth(), rnd.nextDouble() * heatMap.getFitHeight());
+        noOfSpots++;
+    }
+
+    private void updateMatrix() {
+        for (int i = 0 ; i < MATRIX_COLS ; i++) {
+            matrixPane.setValueAt(rnd.nextInt(MATRIX_COLS), rnd.nextInt(MATRIX_ROWS), rnd.nextDouble());
+        }
+        matrixPane.getMatrix().drawMatrix();
+    }
+
+    private void updateAreaHeatMap() {
+        double width  = WIDTH / 3.0;
+        double height = HEIGHT / 2.0;
+        for (int i = 0 ; i < AREA_POINTS ; i++) {
+            DataPoint point = areaPoints.get(i);
+            areaPoints.set(i, new DataPoint(Math.max(0, Math.min(width, point.getX() + rnd.nextGaussian() * 5)),
+                                            Math.max(0, Math.min(height, point.getY() + rnd.nextGaussian() * 5)),
+                                            point.getValue()));
+        }
+        areaHeatMap.setDataPoints(areaPoints);
+    }
+
+    private void addFrameTime(final long NANOS) {
+        if (noOfFrames == frameTimes.length) { frameTimes = Arrays.copyOf(frameTimes, frameTimes.length * 2); }
+        frameTimes[noOfFrames++] = NANOS;
+    }
+
+    private void registerGcListeners() {
+        for (GarbageCollectorMXBean gcBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (!(gcBean instanceof NotificationEmitter)) { continue; }
+            ((NotificationEmitter) gcBean).addNotificationListener((notification, handback) -> {
+                if (!measuring || !GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) { return; }
+                GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+                synchronized (gcPauses) { gcPauses.add(info.getGcInfo().getDuration()); }
+            }, null, null);
+        }
+    }
+
+    /**
+     * The allocated bytes of a thread are only available while the thread is alive,
+     * so the counters of all threads are sampled every SAMPLE_MS during
+     * the measurement. Threads that are started during the measurement count from 0,
+     * threads that end lose at most the bytes since the last sample.
+     */
+    private void startAllocationSampling() {
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        synchronized (allocations) {
+            long[] ids        = threadBean.getAllThreadIds();
+            long[] allocation = threadBean.getThreadAllocatedBytes(ids);
+            allocations.clear();
+            for (int i = 0 ; i < ids.length ; i++) { if (allocation[i] >= 0) { allocations.put(ids[i], allocation[i]); } }
+            allocatedBytes = 0;
+        }
+        producer.scheduleAtFixedRate(this::sampleAllocations, SAMPLE_MS, SAMPLE_MS, TimeUnit.MILLISECONDS);
+    }
+
+    // Adds the bytes that every thread allocated since the last sample and returns the bytes allocated since the start of the sampling
+    private long sampleAllocations() {
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        synchronized (allocations) {
+            long[] ids        = threadBean.getAllThreadIds();
+            long[] allocation = threadBean.getThreadAllocatedBytes(ids);
+            for (int i = 0 ; i < ids.length ; i++) {
+                if (allocation[i] < 0) { continue; }
+                Long last = allocations.put(ids[i], allocation[i]);
+                allocatedBytes += allocation[i] - (null == last ? 0 : last);
+            }
+            return allocatedBytes;
+        }
+    }
+
+    private boolean report(final long DURATION, final long ALLOCATED) throws InterruptedException {
+        CountDownLatch latch  = new CountDownLatch(1);
+        long[][]       frames = new long[1][];
+        Platform.runLater(() -> {
+            frames[0] = Arrays.copyOf(frameTimes, noOfFrames);
+            latch.countDown();
+        });
+        latch.await();
+        long[] sorted = frames[0];
+        Arrays.sort(sorted);
+
+        double seconds = DURATION / 1e9;
+        double p50     = percentile(sorted, 0.50) / 1e6;
+        double p99     = percentile(sorted, 0.99) / 1e6;
+        double max     = sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6;
+
+        long noOfPauses;
+        long totalPause;
+        long maxPause;
+        synchronized (gcPauses) {
+            noOfPauses = gcPauses.size();
+            totalPause = gcPauses.stream().mapToLong(Long::longValue).sum();
+            maxPause   = gcPauses.stream().mapToLong(Long::longValue).max().orElse(0);
+        }
+
+        System.out.printf(Locale.US, "%nSoak test %.1f s, rate %d/s, area rate %d/s, %d points per series%n", seconds, rate, areaRate, points);
+        System.out.printf(Locale.US, "Frames          : %d (%.1f fps)%n", sorted.length, sorted.length / seconds);
+        System.out.printf(Locale.US, "Frame time      : p50 %.2f ms, p99 %.2f ms, max %.2f ms%n", p50, p99, max);
+        System.out.printf(Locale.US, "Updates         : %d applied, %d dropped%n", updates.get(), droppedUpdates.get());
+        System.out.printf(Locale.US, "Allocation rate : %.1f MB/s%n", ALLOCATED / seconds / (1024 * 1024));
+        System.out.printf(Locale.US, "GC pauses       : %d, total %d ms, max %d ms%n", noOfPauses, totalPause, maxPause);
+        System.out.println("Chart metrics   :");
+        FxThread.call(ChartMetrics::getAll).forEach(metrics -> System.out.println("  " + metrics));
+
+        if (maxP99 > 0 && p99 > maxP99) {
+            System.out.printf(Locale.US, "FAILED: p99 frame time %.2f ms is larger than %.2f ms%n", p99, maxP99);
+            return false;
+        }
+        return true;
+    }
+
+    private static long percentile(final long[] SORTED, final double PERCENTILE) {
+        if (SORTED.length == 0) { return 0; }
+        int index = (int) Math.ceil(PERCENTILE * SORTED.length) - 1;
+        return SORTED[Math.max(0, Math.min(SORTED.length - 1, index))];
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.charts.tools;
+
+import javafx.scene.paint.LinearGradient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures color lookups in a gradient (one lookup per value) and the
+ * subdivision of size points into smoothed segments.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HelperBenchmark {
+    private static final int SUB_DIVISIONS = 16;
+
+    @Param({ "100", "1000", "10000" })
+    public int size;
+
+    private LinearGradient gradient;
+    private double[]       fractions;
+    private Point[]        points;
+
+
+    @Setup public void setup() {
+        Random rnd = new Random(42);
+        gradient  = ColorMapping.BLUE_CYAN_GREEN_YELLOW_RED.getGradient();
+        fractions = new double[size];
+        points    = new Point[size];
+        for (int i = 0 ; i < size ; i++) {
+            fractions[i] = rnd.nextDouble();
+            points[i]    = new Point(i, rnd.nextDouble() * 100);
+        }
+    }
+
+    @Benchmark public void getColorAt(final Blackhole BLACKHOLE) {
+        for (int i = 0 ; i < size ; i++) { BLACKHOLE.consume(Helper.getColorAt(gradient, fractions[i])); }
+    }
+
+    @Benchmark public Point[] subdividePoints() {
+        return Helper.subdividePoints(points, SUB_DIVISIONS);
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.geometry;
+
+import eu.hansolo.fx.geometry.transform.BaseTransform;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures the flattening of a path that contains size cubic and size
+ * quadratic curve segments.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PathBenchmark {
+    private static final double FLATNESS = 0.5;
+
+    @Param({ "10", "100", "1000" })
+    public int size;
+
+    private Path     path;
+    private double[] coords;
+
+
+    @Setup public void setup() {
+        Random rnd = new Random(42);
+        path   = new Path();
+        coords = new double[6];
+        path.moveTo(0, 0);
+        for (int i = 0 ; i < size ; i++) {
+            double x = i * 10;
+            path.bezierCurveTo(x + rnd.nextDouble() * 10, rnd.nextDouble() * 100, x + rnd.nextDouble() * 10, rnd.nextDouble() * 100, x + 5, rnd.nextDouble() * 100);
+            path.quadraticCurveTo(x + 7.5, rnd.nextDouble() * 100, x + 10, rnd.nextDouble() * 100);
+        }
+    }
+
+    @Benchmark public int flatten() {
+        int          segments = 0;
+        PathIterator iterator = path.getPathIterator(BaseTransform.IDENTITY_TRANSFORM, FLATNESS);
+        while (!iterator.isDone()) {
+            iterator.currentSegment(coords);
+            segments++;
+            iterator.next();
+        }
+        return segments;
+    }
+}
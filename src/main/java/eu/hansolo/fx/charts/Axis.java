@@ -16,9 +16,16 @@
 
 package eu.hansolo.fx.charts;
 
+import eu.hansolo.fx.charts.event.ChartEvent;
+import eu.hansolo.fx.charts.event.ChartEventListener;
+import eu.hansolo.fx.charts.event.EventType;
 import eu.hansolo.fx.charts.font.Fonts;
+import eu.hansolo.fx.charts.tools.ChartMetrics;
 import eu.hansolo.fx.charts.tools.Helper;
 import eu.hansolo.fx.charts.tools.Helper.Interval;
+import eu.hansolo.fx.charts.tools.StreamingAutoScale;
+import eu.hansolo.fx.charts.tools.TextMetrics;
+import eu.hansolo.fx.charts.tools.TickLabelCache;
 import eu.hansolo.fx.charts.tools.TickLabelFormat;
 import javafx.beans.DefaultProperty;
 import javafx.beans.property.BooleanProperty;
@@ -42,7 +49,6 @@ import javafx.scene.layout.Pane;
 import javafx.scene.layout.Region;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
-import javafx.scene.text.Text;
 import javafx.scene.text.TextAlignment;
 
 import java.math.BigDecimal;
@@ -57,6 +63,7 @@ import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import static javafx.geometry.Orientation.VERTICAL;
 
@@ -75,6 +82,7 @@ public class Axis extends Region {
     private static final double                               MIN_MAJOR_LINE_WIDTH  = 1;
     private static final double                               MIN_MEDIUM_LINE_WIDTH = 0.75;
     private static final double                               MIN_MINOR_LINE_WIDTH  = 0.5;
+    private        final ChartEvent                           UPDATE_EVENT          = new ChartEvent(EventType.UPDATE);
     private              double                               size;
     private              double                               width;
     private              double                               height;
@@ -156,6 +164,10 @@ public class Axis extends Region {
     private              List<String>                         categories;
     private              DateTimeFormatter                    dateTimeFormatter;
     private              Interval                             currentInterval;
+    private              TickLabelCache                       tickLabelCache;
+    private              StreamingAutoScale                   streamingAutoScale;
+    private              ChartMetrics                         metrics;
+    private              CopyOnWriteArrayList<ChartEventListener> listeners;
 
 
     // ******************** Constructors **************************************
@@ -221,9 +233,12 @@ public class Axis extends Region {
         _dateTimeFormatPattern            = "dd.MM.YY HH:mm:ss";
         currentInterval                   = Interval.SECOND_1;
         dateTimeFormatter                 = DateTimeFormatter.ofPattern(_dateTimeFormatPattern, _locale);
+        tickLabelCache                    = new TickLabelCache();
         categories                        = new LinkedList<>();
         tickLabelFormatString             = new StringBuilder("%.").append(Integer.toString(_decimals)).append("f").toString();
 
+        listeners                         = new CopyOnWriteArrayList<>();
+        metrics                           = ChartMetrics.register(this);
         initGraphics();
         registerListeners();
     }
@@ -277,8 +292,11 @@ public class Axis extends Region {
         _dateTimeFormatPattern            = "dd.MM.YY HH:mm:ss";
         currentInterval                   = Interval.SECOND_1;
         dateTimeFormatter                 = DateTimeFormatter.ofPattern(_dateTimeFormatPattern, _locale);
+        tickLabelCache                    = new TickLabelCache();
         tickLabelFormatString             = new StringBuilder("%.").append(Integer.toString(_decimals)).append("f").toString();
 
+        listeners                         = new CopyOnWriteArrayList<>();
+        metrics                           = ChartMetrics.register(this);
         initGraphics();
         registerListeners();
     }
@@ -1052,14 +1070,28 @@ public class Axis extends Region {
         return DATE_TIME.isAfter(getStart()) && DATE_TIME.isBefore(getEnd());
     }
 
+    /**
+     * Sets the range of the axis and redraws it. With auto scale and a
+     * StreamingAutoScale the given values are treated as the range of the data
+     * and the axis is only redrawn if the policy changed its range.
+     * @param MIN_VALUE minimum value (of the data)
+     * @param MAX_VALUE maximum value (of the data)
+     */
     public void setMinMax(final double MIN_VALUE, final double MAX_VALUE) {
-        setMinValue(MIN_VALUE);
-        setMaxValue(MAX_VALUE);
+        if (isStreamingAutoScale()) {
+            if (!streamingAutoScale.update(MIN_VALUE, MAX_VALUE, System.currentTimeMillis())) { return; }
+            applyStreamingAutoScale();
+        } else {
+            setMinValue(MIN_VALUE);
+            setMaxValue(MAX_VALUE);
+        }
         resize();
     }
 
     public double getRange() { return getMaxValue() - getMinValue(); }
 
+    public ChartMetrics getMetrics() { return metrics; }
+
     public void setTickMarkColor(final Color COLOR) {
         setMinorTickMarkColor(COLOR);
         setMediumTickMarkColor(COLOR);
@@ -1076,6 +1108,50 @@ public class Axis extends Region {
         setMinMax(getMinValue() + VALUE, getMaxValue() + VALUE);
     }
 
+    public StreamingAutoScale getStreamingAutoScale() { return streamingAutoScale; }
+    /**
+     * With auto scale enabled, a StreamingAutoScale replaces the nice scale that is
+     * calculated on every redraw. setMinMax() then only changes the range, the tick
+     * spaces and redraws the axis when the data leaves the current range or used too
+     * little of it for too long. Set it to null to fit the range to every new range.
+     * @param AUTO_SCALE policy that should be used for auto scaling linear axes or null
+     */
+    public void setStreamingAutoScale(final StreamingAutoScale AUTO_SCALE) {
+        streamingAutoScale = AUTO_SCALE;
+        if (null != streamingAutoScale) { streamingAutoScale.reset(); }
+    }
+
+    // Axis events are fired after the axis was redrawn, e.g. to let a Grid follow the range and the tick spaces of the axis
+    public void setOnChartEvent(final ChartEventListener LISTENER) { addChartEventListener(LISTENER); }
+    public void addChartEventListener(final ChartEventListener LISTENER) { if (!listeners.contains(LISTENER)) listeners.add(LISTENER); }
+    public void removeChartEventListener(final ChartEventListener LISTENER) { if (listeners.contains(LISTENER)) listeners.remove(LISTENER); }
+    public void removeAllChartEventListeners() { listeners.clear(); }
+
+    public void fireChartEvent(final ChartEvent EVENT) {
+        for (ChartEventListener listener : listeners) { listener.onChartEvent(EVENT); }
+    }
+
+    private boolean isStreamingAutoScale() { return null != streamingAutoScale && isAutoScale() && AxisType.LINEAR == getType(); }
+
+    private void fitStreamingAutoScale() {
+        // The range might have been set directly, e.g. with setMinValue()
+        if (Double.compare(getMinValue(), streamingAutoScale.getLowerBound()) != 0 || Double.compare(getMaxValue(), streamingAutoScale.getUpperBound()) != 0) {
+            streamingAutoScale.update(getMinValue(), getMaxValue(), System.currentTimeMillis());
+        }
+        if (streamingAutoScale.getMajorTickSpace() > 0) {
+            applyStreamingAutoScale();
+        } else {
+            calcAutoScale();
+        }
+    }
+
+    private void applyStreamingAutoScale() {
+        setMajorTickSpace(streamingAutoScale.getMajorTickSpace());
+        setMinorTickSpace(streamingAutoScale.getMinorTickSpace());
+        setMinValue(streamingAutoScale.getLowerBound());
+        setMaxValue(streamingAutoScale.getUpperBound());
+    }
+
     private void calcAutoScale() {
         double maxNoOfMajorTicks = 10;
         double maxNoOfMinorTicks = 10;
@@ -1096,13 +1172,7 @@ public class Axis extends Region {
         setMinorTickSpace(Helper.calcNiceNumber(getMajorTickSpace() / (maxNoOfMinorTicks - 1), false));
     }
 
-    private double calcTextWidth(final Font FONT, final String TEXT) {
-        Text text = new Text(TEXT);
-        text.setFont(FONT);
-        double width = text.getBoundsInParent().getWidth();
-        text = null;
-        return width;
-    }
+    private double calcTextWidth(final Font FONT, final String TEXT) { return TextMetrics.getTextWidth(TEXT, FONT); }
 
     private double toNumericValue(final LocalDateTime DATE) {
         return Helper.toMillis(DATE, Helper.getZoneOffset(getZoneId()));
@@ -1313,6 +1383,9 @@ public class Axis extends Region {
 
         Locale      locale            = getLocale();
         Orientation orientation       = getOrientation();
+        tickLabelCache.setNumberFormat(tickLabelFormatString, locale);
+        tickLabelCache.setDateTimeFormat(dateTimeFormatter, ZoneId.systemDefault());
+        tickLabelCache.setZoneOffset(Helper.getZoneOffset());
         Position    position          = getPosition();
         double      anchorX           = (Position.LEFT == position || Position.CENTER == position) ? 0 : getZeroPosition();
         double      anchorXPlusOffset = anchorX + width;
@@ -1477,9 +1550,9 @@ public class Axis extends Region {
                         String tickLabelString;
                         if (AxisType.LINEAR == axisType) {
                             if (TickLabelFormat.NUMBER == tickLabelFormat) {
-                                tickLabelString = Orientation.HORIZONTAL == orientation ? String.format(locale, tickLabelFormatString, (minValue - i)) : String.format(locale, tickLabelFormatString, maxValue - counter + minValue);
+                                tickLabelString = Orientation.HORIZONTAL == orientation ? tickLabelCache.formatNumber(minValue - i) : tickLabelCache.formatNumber(maxValue - counter + minValue);
                             } else {
-                                tickLabelString = Orientation.HORIZONTAL == orientation ? Helper.secondsToHHMMString(Helper.toSeconds(Helper.toRealValue(minValue - i), Helper.getZoneOffset())) : String.format(locale, tickLabelFormatString, maxValue - counter + minValue);
+                                tickLabelString = Orientation.HORIZONTAL == orientation ? tickLabelCache.formatTime(minValue - i) : tickLabelCache.formatNumber(maxValue - counter + minValue);
                             }
                         } else if (AxisType.TEXT == axisType) {
                             if (tickLabelCounter < noOfCategories) {
@@ -1494,7 +1567,7 @@ public class Axis extends Region {
                             }
                         } else {
                             // Date Axis
-                            tickLabelString = dateTimeFormatter.format(toLocalDateTime((long) (minValue - i) * 1000));
+                            tickLabelString = tickLabelCache.formatDateTime((long) (minValue - i) * 1000);
                         }
                         drawTickLabel(isOnlyFirstAndLastTickLabelVisible, isZero, isMinValue, isMaxValue, fullRange, zeroColor, tickLabelColor, textPointX, textPointY, maxTextWidth, tickLabelString, orientation);
                     }
@@ -1523,9 +1596,9 @@ public class Axis extends Region {
                     if (tickLabelsVisible) {
                         String tickLabelString;
                         if (TickLabelFormat.NUMBER == getTickLabelFormat()) {
-                            tickLabelString = Orientation.HORIZONTAL == orientation ? String.format(locale, tickLabelFormatString, (minValue - i)) : String.format(locale, tickLabelFormatString, maxValue - counter + minValue);
+                            tickLabelString = Orientation.HORIZONTAL == orientation ? tickLabelCache.formatNumber(minValue - i) : tickLabelCache.formatNumber(maxValue - counter + minValue);
                         } else {
-                            tickLabelString = Orientation.HORIZONTAL == orientation ? Helper.secondsToHHMMString(Helper.toSeconds(Helper.toRealValue(minValue - i), Helper.getZoneOffset())) : String.format(locale, tickLabelFormatString, maxValue - counter + minValue);
+                            tickLabelString = Orientation.HORIZONTAL == orientation ? tickLabelCache.formatTime(minValue - i) : tickLabelCache.formatNumber(maxValue - counter + minValue);
                         }
                         drawTickLabel(isOnlyFirstAndLastTickLabelVisible, isZero, isMinValue, isMaxValue, fullRange, zeroColor, tickLabelColor, textPointX, textPointY, maxTextWidth, tickLabelString, orientation);
                     }
@@ -1540,6 +1613,7 @@ public class Axis extends Region {
         } else if (AxisType.LOGARITHMIC == axisType){
             // ******************** Logarithmic *******************************
             tickLabelFormatString = "%6.0e";
+            tickLabelCache.setNumberFormat(tickLabelFormatString, locale);
             double logLowerBound = Math.log10(getMinValue());
             double logUpperBound = Math.log10(getMaxValue());
             double section;
@@ -1630,7 +1704,7 @@ public class Axis extends Region {
                             if (VERTICAL == orientation) {
                                 axisCtx.setTextAlign(TextAlignment.RIGHT);
                             }
-                            drawTickLabel(isOnlyFirstAndLastTickLabelVisible, false, isMinValue, isMaxValue, false, zeroColor, tickLabelColor, textPointX, textPointY, maxTextWidth, String.format(locale, tickLabelFormatString, value), orientation);
+                            drawTickLabel(isOnlyFirstAndLastTickLabelVisible, false, isMinValue, isMaxValue, false, zeroColor, tickLabelColor, textPointX, textPointY, maxTextWidth, tickLabelCache.formatNumber(value.doubleValue()), orientation);
                         }
                     } else {
                         if (minorTickMarksVisible) {
@@ -1705,6 +1779,7 @@ public class Axis extends Region {
         long                mediumTickSpace   = currentInterval.getMediumTickSpace();
         long                minorTickSpace    = currentInterval.getMinorTickSpace();
         long                counter           = minValueInSeconds;
+        tickLabelCache.setDateTimeFormat(dateTimeFormatter, ZoneId.systemDefault());
 
         axisCtx.setLineWidth(majorLineWidth);
 
@@ -1835,11 +1910,11 @@ public class Axis extends Region {
                     if (VERTICAL == orientation) {
                         axisCtx.setTextAlign(TextAlignment.RIGHT);
                         if (isMinValue) {
-                            axisCtx.fillText(dateTimeFormatter.format(toLocalDateTime((long) (minValue - i) * 1000)), textPointX, textPointY + size * 0.15, maxTextWidth);
+                            axisCtx.fillText(tickLabelCache.formatDateTime((long) (minValue - i) * 1000), textPointX, textPointY + size * 0.15, maxTextWidth);
                         } else if (isMaxValue) {
-                            axisCtx.fillText(dateTimeFormatter.format(toLocalDateTime((long) (minValue - i) * 1000)), textPointX, textPointY - size * 0.15, maxTextWidth);
+                            axisCtx.fillText(tickLabelCache.formatDateTime((long) (minValue - i) * 1000), textPointX, textPointY - size * 0.15, maxTextWidth);
                         } else {
-                            axisCtx.fillText(dateTimeFormatter.format(toLocalDateTime((long) (minValue - i) * 1000)), textPointX, textPointY, maxTextWidth);
+                            axisCtx.fillText(tickLabelCache.formatDateTime((long) (minValue - i) * 1000), textPointX, textPointY, maxTextWidth);
                         }
                     } else {
                         if (isMinValue) {
@@ -1848,15 +1923,14 @@ public class Axis extends Region {
                             axisCtx.setTextAlign(TextAlignment.RIGHT);
                         } else {
                             axisCtx.setTextAlign(TextAlignment.CENTER);
-                            LocalDateTime currentDateTime = toLocalDateTime(i);
-                            double halfLabelWidth = calcTextWidth(tickLabelFont, dateTimeFormatter.format(currentDateTime)) * 0.5;
+                            double halfLabelWidth = calcTextWidth(tickLabelFont, tickLabelCache.formatDateTime(i)) * 0.5;
                             if (textPointX - halfLabelWidth < 0) {
                                 textPointX = halfLabelWidth;
                             } else if (textPointX + halfLabelWidth > width) {
                                 textPointX = width - halfLabelWidth;
                             }
                         }
-                        drawTickLabel(isOnlyFirstAndLastTickLabelVisible, false, isMinValue, isMaxValue, false, majorTickMarkColor, tickLabelColor, textPointX, textPointY, maxTextWidth, dateTimeFormatter.format(toLocalDateTime(i)), orientation);
+                        drawTickLabel(isOnlyFirstAndLastTickLabelVisible, false, isMinValue, isMaxValue, false, majorTickMarkColor, tickLabelColor, textPointX, textPointY, maxTextWidth, tickLabelCache.formatDateTime(i), orientation);
                     }
                 }
             } else if(mediumTickMarksVisible && i % mediumTickSpace == 0) {
@@ -2009,15 +2083,27 @@ public class Axis extends Region {
     }
 
     private void redraw() {
-        if (AxisType.DATE == getType()) {
-            drawTimeAxis();
-        } else {
-            if (isAutoScale()) { 
-                calcAutoScale(); 
+        metrics.startRedraw();
+        long hits   = tickLabelCache.getHitCount();
+        long misses = tickLabelCache.getMissCount();
+        try {
+            if (AxisType.DATE == getType()) {
+                drawTimeAxis();
             } else {
-                calcScale();
+                if (isStreamingAutoScale()) {
+                    fitStreamingAutoScale();
+                } else if (isAutoScale()) {
+                    calcAutoScale();
+                } else {
+                    calcScale();
+                }
+                drawAxis();
             }
-            drawAxis();
+            fireChartEvent(UPDATE_EVENT);
+        } finally {
+            metrics.addCacheHits(tickLabelCache.getHitCount() - hits);
+            metrics.addCacheMisses(tickLabelCache.getMissCount() - misses);
+            metrics.endRedraw();
         }
     }
 }
@@ -25,6 +25,7 @@ import eu.hansolo.fx.charts.event.ItemEventListener;
 import eu.hansolo.fx.charts.font.Fonts;
 import eu.hansolo.fx.charts.tools.Helper;
 import eu.hansolo.fx.charts.tools.Point;
+import eu.hansolo.fx.charts.tools.TextMetrics;
 import eu.hansolo.fx.geometry.Path;
 import javafx.application.Platform;
 import javafx.beans.DefaultProperty;
@@ -49,7 +50,6 @@ import javafx.scene.paint.Color;
 import javafx.scene.shape.ArcType;
 import javafx.scene.shape.StrokeLineCap;
 import javafx.scene.text.Font;
-import javafx.scene.text.Text;
 import javafx.scene.text.TextAlignment;
 
 import java.math.BigDecimal;
@@ -597,9 +597,7 @@ public class CircularPlot extends Region {
 
             if (TickLabelOrientation.ORTHOGONAL == tickLabelOrientation) {
                 Font font = Fonts.latoRegular(size * 0.02);
-                Text measureText = new Text(item.getName());
-                measureText.setFont(font);
-                double textWidth = measureText.getLayoutBounds().getWidth();
+                double textWidth = TextMetrics.getTextWidth(item.getName(), font);
                 itemNamePointX += textWidth * 0.33 * sinValue;
                 itemNamePointY += textWidth * 0.33 * cosValue;
             }
@@ -16,6 +16,8 @@
 
 package eu.hansolo.fx.charts;
 
+import eu.hansolo.fx.charts.event.ChartEventListener;
+import eu.hansolo.fx.charts.tools.ChartMetrics;
 import eu.hansolo.fx.charts.tools.Helper;
 import javafx.beans.DefaultProperty;
 import javafx.beans.property.BooleanProperty;
@@ -28,12 +30,17 @@ import javafx.collections.ObservableList;
 import javafx.scene.Node;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.image.WritablePixelFormat;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.Region;
 import javafx.scene.paint.Color;
 import javafx.scene.paint.Paint;
 
 import java.math.BigDecimal;
+import java.nio.IntBuffer;
+import java.util.Arrays;
 
 
 /**
@@ -52,6 +59,10 @@ public class Grid extends Region {
     private static final double                MIN_MAJOR_LINE_WIDTH  = 1;
     private static final double                MIN_MEDIUM_LINE_WIDTH = 0.75;
     private static final double                MIN_MINOR_LINE_WIDTH  = 0.5;
+    private static final double                MAJOR_LINE_WIDTH      = 25 * 0.007 < MIN_MAJOR_LINE_WIDTH ? MIN_MAJOR_LINE_WIDTH : 25 * 0.007;
+    private static final double                MEDIUM_LINE_WIDTH     = 25 * 0.006 < MIN_MEDIUM_LINE_WIDTH ? MIN_MEDIUM_LINE_WIDTH : 25 * 0.005;
+    private static final double                MINOR_LINE_WIDTH      = 25 * 0.005 < MIN_MINOR_LINE_WIDTH ? MIN_MINOR_LINE_WIDTH : 25 * 0.003;
+    private static final double[]              LINE_WIDTHS           = { MINOR_LINE_WIDTH, MEDIUM_LINE_WIDTH, MAJOR_LINE_WIDTH };
     private              double                size;
     private              double                width;
     private              double                height;
@@ -87,6 +98,12 @@ public class Grid extends Region {
     private              Canvas                canvas;
     private              GraphicsContext       ctx;
     private              Pane                  pane;
+    private              GridLayer             vGridLayer;
+    private              GridLayer             hGridLayer;
+    private              boolean               rasterized;
+    private              ChartEventListener    xAxisListener;
+    private              ChartEventListener    yAxisListener;
+    private              ChartMetrics          metrics;
 
 
     // ******************** Constructors **************************************
@@ -107,6 +124,11 @@ public class Grid extends Region {
         _mediumVGridLinesVisible = true;
         _minorVGridLinesVisible  = true;
         dashes                   = new double[]{1};
+        vGridLayer               = new GridLayer(true);
+        hGridLayer               = new GridLayer(false);
+        xAxisListener            = e -> drawGrid();
+        yAxisListener            = e -> drawGrid();
+        metrics                  = ChartMetrics.register(this);
         initGraphics();
         registerListeners();
     }
@@ -134,6 +156,9 @@ public class Grid extends Region {
     private void registerListeners() {
         widthProperty().addListener(o -> resize());
         heightProperty().addListener(o -> resize());
+        // Follow the range and tick spaces of the axes, the grid is only redrawn if one of them changed
+        xAxis.addChartEventListener(xAxisListener);
+        yAxis.addChartEventListener(yAxisListener);
         // add listeners to your propertes like
         //value.addListener(o -> handleControlPropertyChanged("VALUE"));
     }
@@ -440,93 +465,144 @@ public class Grid extends Region {
         drawGrid();
     }
 
+    public ChartMetrics getMetrics() { return metrics; }
+
     private void drawGrid() {
+        metrics.startRedraw();
+        try {
+            updateGrid();
+        } finally {
+            metrics.endRedraw();
+        }
+    }
+
+    private void updateGrid() {
+        if (width <= 0 || height <= 0) { return; }
+
+        Paint minorHGridPaint  = null == getMinorHGridLinePaint()  ? Helper.getColorWithOpacity(yAxis.getMinorTickMarkColor(), getGridOpacity())  : getMinorHGridLinePaint();
+        Paint mediumHGridPaint = null == getMediumHGridLinePaint() ? Helper.getColorWithOpacity(yAxis.getMediumTickMarkColor(), getGridOpacity()) : getMediumHGridLinePaint();
+        Paint majorHGridPaint  = null == getMinorHGridLinePaint()  ? Helper.getColorWithOpacity(yAxis.getMajorTickMarkColor(), getGridOpacity())  : getMinorHGridLinePaint();
+
+        Paint minorVGridPaint  = null == getMajorVGridLinePaint()  ? Helper.getColorWithOpacity(xAxis.getMinorTickMarkColor(), getGridOpacity())  : getMajorVGridLinePaint();
+        Paint mediumVGridPaint = null == getMediumVGridLinePaint() ? Helper.getColorWithOpacity(xAxis.getMediumTickMarkColor(), getGridOpacity()) : getMediumVGridLinePaint();
+        Paint majorVGridPaint  = null == getMinorVGridLinePaint()  ? Helper.getColorWithOpacity(xAxis.getMajorTickMarkColor(), getGridOpacity())  : getMinorVGridLinePaint();
+
+        boolean linearX   = isLinear(xAxis);
+        boolean linearY   = isLinear(yAxis);
+        // Only solid colored grid lines of linear axes are rasterized, everything else is stroked on the canvas
+        boolean rasterize = linearX && linearY &&
+                            majorVGridPaint instanceof Color && mediumVGridPaint instanceof Color && minorVGridPaint instanceof Color &&
+                            majorHGridPaint instanceof Color && mediumHGridPaint instanceof Color && minorHGridPaint instanceof Color;
+
+        // The grid lines of logarithmic axes follow the visibility of the tick marks of the axis
+        int vStatus = vGridLayer.update(xAxis, width, height, majorVGridPaint, mediumVGridPaint, minorVGridPaint,
+                                        linearX ? getMajorVGridLinesVisible() : xAxis.getMajorTickMarksVisible(),
+                                        linearX && getMediumVGridLinesVisible(),
+                                        linearX ? getMinorVGridLinesVisible() : xAxis.getMinorTickMarksVisible(),
+                                        dashes, rasterize);
+        int hStatus = hGridLayer.update(yAxis, height, width, majorHGridPaint, mediumHGridPaint, minorHGridPaint,
+                                        linearY ? getMajorHGridLinesVisible() : yAxis.getMajorTickMarksVisible(),
+                                        linearY && getMediumHGridLinesVisible(),
+                                        linearY ? getMinorHGridLinesVisible() : yAxis.getMinorTickMarksVisible(),
+                                        dashes, rasterize);
+
+        if (GridLayer.UNCHANGED == vStatus && GridLayer.UNCHANGED == hStatus && rasterize == rasterized) {
+            metrics.cacheHit();
+            return;
+        }
+
+        // Only the lines that were not visible before have to be classified, e.g. the ones in the strip exposed by panning
+        int noOfLines   = vGridLayer.getLines().size() + hGridLayer.getLines().size();
+        int reusedLines = vGridLayer.getReusedLines() + hGridLayer.getReusedLines();
+        metrics.addCacheHits(reusedLines);
+        metrics.addCacheMisses(noOfLines - reusedLines);
+
         ctx.clearRect(0, 0, width, height);
+        if (rasterize) {
+            ctx.drawImage(vGridLayer.getImage(), 0, 0);
+            ctx.drawImage(hGridLayer.getImage(), 0, 0);
+        } else {
+            drawGridLines(majorVGridPaint, mediumVGridPaint, minorVGridPaint, majorHGridPaint, mediumHGridPaint, minorHGridPaint);
+        }
+        rasterized = rasterize;
+    }
+
+    private void drawGridLines(final Paint MAJOR_V_GRID_COLOR, final Paint MEDIUM_V_GRID_COLOR, final Paint MINOR_V_GRID_COLOR,
+                               final Paint MAJOR_H_GRID_COLOR, final Paint MEDIUM_H_GRID_COLOR, final Paint MINOR_H_GRID_COLOR) {
         ctx.setLineDashes(dashes);
 
-        double majorLineWidth  = 25 * 0.007 < MIN_MAJOR_LINE_WIDTH ? MIN_MAJOR_LINE_WIDTH : 25 * 0.007;
-        double mediumLineWidth = 25 * 0.006 < MIN_MEDIUM_LINE_WIDTH ? MIN_MEDIUM_LINE_WIDTH : 25 * 0.005;
-        double minorLineWidth  = 25 * 0.005 < MIN_MINOR_LINE_WIDTH ? MIN_MINOR_LINE_WIDTH : 25 * 0.003;
-
-        Paint minorHGridColor  = null == getMinorHGridLinePaint()  ? Helper.getColorWithOpacity(yAxis.getMinorTickMarkColor(), getGridOpacity())  : getMinorHGridLinePaint();
-        Paint mediumHGridColor = null == getMediumHGridLinePaint() ? Helper.getColorWithOpacity(yAxis.getMediumTickMarkColor(), getGridOpacity()) : getMediumHGridLinePaint();
-        Paint majorHGridColor  = null == getMinorHGridLinePaint()  ? Helper.getColorWithOpacity(yAxis.getMajorTickMarkColor(), getGridOpacity())  : getMinorHGridLinePaint();
-
-        Paint minorVGridColor  = null == getMajorVGridLinePaint()  ? Helper.getColorWithOpacity(xAxis.getMinorTickMarkColor(), getGridOpacity())  : getMajorVGridLinePaint();
-        Paint mediumVGridColor = null == getMediumVGridLinePaint() ? Helper.getColorWithOpacity(xAxis.getMediumTickMarkColor(), getGridOpacity()) : getMediumVGridLinePaint();
-        Paint majorVGridColor  = null == getMinorVGridLinePaint()  ? Helper.getColorWithOpacity(xAxis.getMajorTickMarkColor(), getGridOpacity())  : getMinorVGridLinePaint();
-
-        AxisType xAxisType       = xAxis.getType();
-        double   minX            = xAxis.getMinValue();
-        double   maxX            = xAxis.getMaxValue();
-        boolean  fullRangeX      = (minX < 0 && maxX > 0);
-        double   minorTickSpaceX = xAxis.getMinorTickSpace();
-        double   majorTickSpaceX = xAxis.getMajorTickSpace();
-        double   rangeX          = xAxis.getRange();
-        double   stepSizeX       = Math.abs(width / rangeX);
-        double   zeroPositionX   = xAxis.getZeroPosition();
-
-        AxisType yAxisType       = yAxis.getType();
-        double   minY            = yAxis.getMinValue();
-        double   maxY            = yAxis.getMaxValue();
-        boolean  fullRangeY      = (minY < 0 && maxY > 0);
-        double   minorTickSpaceY = yAxis.getMinorTickSpace();
-        double   majorTickSpaceY = yAxis.getMajorTickSpace();
-        double   rangeY          = yAxis.getRange();
-        double   stepSizeY       = Math.abs(height / rangeY);
-        double   zeroPositionY   = yAxis.getZeroPosition();
-        
-        BigDecimal minorTickSpaceBD = BigDecimal.valueOf(minorTickSpaceX);
-        BigDecimal majorTickSpaceBD = BigDecimal.valueOf(majorTickSpaceX);
-        BigDecimal mediumCheck2     = BigDecimal.valueOf(2 * minorTickSpaceX);
-        BigDecimal mediumCheck5     = BigDecimal.valueOf(5 * minorTickSpaceX);
+        double majorLineWidth  = MAJOR_LINE_WIDTH;
+        double mediumLineWidth = MEDIUM_LINE_WIDTH;
+        double minorLineWidth  = MINOR_LINE_WIDTH;
+
+        Paint minorHGridColor  = MINOR_H_GRID_COLOR;
+        Paint mediumHGridColor = MEDIUM_H_GRID_COLOR;
+        Paint majorHGridColor  = MAJOR_H_GRID_COLOR;
+
+        Paint minorVGridColor  = MINOR_V_GRID_COLOR;
+        Paint mediumVGridColor = MEDIUM_V_GRID_COLOR;
+        Paint majorVGridColor  = MAJOR_V_GRID_COLOR;
+
+        AxisType  xAxisType  = xAxis.getType();
+        double    minX       = xAxis.getMinValue();
+        double    maxX       = xAxis.getMaxValue();
+        boolean   fullRangeX = (minX < 0 && maxX > 0);
+        double    rangeX     = xAxis.getRange();
+        double    stepSizeX  = Math.abs(width / rangeX);
+        GridLines vGridLines = vGridLayer.getLines();
+
+        AxisType  yAxisType  = yAxis.getType();
+        double    minY       = yAxis.getMinValue();
+        double    maxY       = yAxis.getMaxValue();
+        boolean   fullRangeY = (minY < 0 && maxY > 0);
+        double    rangeY     = yAxis.getRange();
+        double    stepSizeY  = Math.abs(height / rangeY);
+        GridLines hGridLines = hGridLayer.getLines();
 
         // Main Loop for grid lines
         if (AxisType.LINEAR == xAxisType || AxisType.TEXT == xAxisType) {
             // ******************** Linear ************************************
-            boolean    isZero;
-            double     tmpStepSize = minorTickSpaceX;
-            BigDecimal counterBD   = BigDecimal.valueOf(minX);
-            double     counter     = minX;
-            BigDecimal tmpStepBD   = new BigDecimal(tmpStepSize);
-            tmpStepBD = tmpStepBD.setScale(3, BigDecimal.ROUND_HALF_UP);
-            double tmpStep = tmpStepBD.doubleValue();
-            for (double i = 0; Double.compare(-rangeX - tmpStep, i) <= 0; i -= tmpStep) {
-                double startPointX = width + i * stepSizeX;
+            for (int i = 0 ; i < vGridLines.size() ; i++) {
+                double startPointX = vGridLines.getOffset(i) * stepSizeX;
                 double startPointY = 0;
                 double endPointX   = startPointX;
                 double endPointY   = height;
 
-                if (Double.compare(counterBD.setScale(12, BigDecimal.ROUND_HALF_UP).remainder(majorTickSpaceBD).doubleValue(), 0.0) == 0) {
-                    // Draw major tick grid line
-                    isZero = Double.compare(0.0, maxX - counter + minX) == 0;
-
-                    if (getMajorVGridLinesVisible()) {
-                        ctx.setStroke((fullRangeX && isZero) ? xAxis.getZeroColor() : majorVGridColor);
-                        ctx.setLineWidth(majorLineWidth);
-                        ctx.strokeLine(startPointX, startPointY, endPointX, endPointY);
-                    } else if (getMinorVGridLinesVisible()) {
-                        ctx.setStroke((fullRangeX && isZero) ? xAxis.getZeroColor() : minorVGridColor);
-                        ctx.setLineWidth(minorLineWidth);
-                        ctx.strokeLine(startPointX, startPointY, endPointX, endPointY);
-                    }
-                } else if (getMediumVGridLinesVisible() &&
-                           Double.compare(minorTickSpaceBD.setScale(12, BigDecimal.ROUND_HALF_UP).remainder(mediumCheck2).doubleValue(), 0.0) != 0.0 &&
-                           Double.compare(counterBD.setScale(12, BigDecimal.ROUND_HALF_UP).remainder(mediumCheck5).doubleValue(), 0.0) == 0.0) {
-                    // Draw medium tick grid line
-                    ctx.setStroke(mediumVGridColor);
-                    ctx.setLineWidth(mediumLineWidth);
-                    ctx.strokeLine(startPointX, startPointY, endPointX, endPointY);
-                } else if (getMinorVGridLinesVisible() && Double.compare(counterBD.setScale(12, BigDecimal.ROUND_HALF_UP).remainder(minorTickSpaceBD).doubleValue(), 0.0) == 0) {
-                    // Draw minor tick grid line
-                    ctx.setStroke(minorVGridColor);
-                    ctx.setLineWidth(minorLineWidth);
-                    ctx.strokeLine(startPointX, startPointY, endPointX, endPointY);
+                switch(vGridLines.getType(i)) {
+                    case GridLines.MAJOR:
+                        // Draw major tick grid line
+                        boolean isZero = vGridLines.isZero(i);
+                        if (getMajorVGridLinesVisible()) {
+                            ctx.setStroke((fullRangeX && isZero) ? xAxis.getZeroColor() : majorVGridColor);
+                            ctx.setLineWidth(majorLineWidth);
+                            ctx.strokeLine(startPointX, startPointY, endPointX, endPointY);
+                        } else if (getMinorVGridLinesVisible()) {
+                            ctx.setStroke((fullRangeX && isZero) ? xAxis.getZeroColor() : minorVGridColor);
+                            ctx.setLineWidth(minorLineWidth);
+                            ctx.strokeLine(startPointX, startPointY, endPointX, endPointY);
+                        }
+                        break;
+                    case GridLines.MEDIUM:
+                        // Draw medium tick grid line
+                        if (getMediumVGridLinesVisible()) {
+                            ctx.setStroke(mediumVGridColor);
+                            ctx.setLineWidth(mediumLineWidth);
+                            ctx.strokeLine(startPointX, startPointY, endPointX, endPointY);
+                        } else if (getMinorVGridLinesVisible()) {
+                            ctx.setStroke(minorVGridColor);
+                            ctx.setLineWidth(minorLineWidth);
+                            ctx.strokeLine(startPointX, startPointY, endPointX, endPointY);
+                        }
+                        break;
+                    default:
+                        // Draw minor tick grid line
+                        if (getMinorVGridLinesVisible()) {
+                            ctx.setStroke(minorVGridColor);
+                            ctx.setLineWidth(minorLineWidth);
+                            ctx.strokeLine(startPointX, startPointY, endPointX, endPointY);
+                        }
+                        break;
                 }
-
-                counterBD = counterBD.add(minorTickSpaceBD);
-                counter = counterBD.doubleValue();
-                if (counter > maxX) break;
             }
         } else if (AxisType.LOGARITHMIC == xAxisType) {
             // ******************** Logarithmic *******************************
@@ -565,56 +641,49 @@ public class Grid extends Region {
         }
 
         
-        minorTickSpaceBD = BigDecimal.valueOf(minorTickSpaceY);
-        majorTickSpaceBD = BigDecimal.valueOf(majorTickSpaceY);
-        mediumCheck2     = BigDecimal.valueOf(2 * minorTickSpaceY);
-        mediumCheck5     = BigDecimal.valueOf(5 * minorTickSpaceY);
-
         if (AxisType.LINEAR == yAxisType || AxisType.TEXT == yAxisType) {
             // ******************** Linear ************************************
-            boolean    isZero;
-            double     tmpStepSize = minorTickSpaceY;
-            BigDecimal counterBD   = BigDecimal.valueOf(minY);
-            double     counter     = minY;
-            BigDecimal tmpStepBD   = new BigDecimal(tmpStepSize);
-            tmpStepBD = tmpStepBD.setScale(3, BigDecimal.ROUND_HALF_UP);
-            double     tmpStep = tmpStepBD.doubleValue();
-            for (double i = 0; Double.compare(-rangeY - tmpStep, i) <= 0; i -= tmpStep) {
+            for (int i = 0 ; i < hGridLines.size() ; i++) {
                 double startPointX = 0;
-                double startPointY = height + i * stepSizeY;
+                double startPointY = hGridLines.getOffset(i) * stepSizeY;
                 double endPointX   = width;
                 double endPointY   = startPointY;
 
-                if (Double.compare(counterBD.setScale(12, BigDecimal.ROUND_HALF_UP).remainder(majorTickSpaceBD).doubleValue(), 0.0) == 0) {
-                    // Draw major tick grid line
-                    isZero = Double.compare(0.0, counter) == 0;
-
-                    if (getMajorHGridLinesVisible()) {
-                        ctx.setStroke((fullRangeY && isZero) ? yAxis.getZeroColor() : majorHGridColor);
-                        ctx.setLineWidth(majorLineWidth);
-                        ctx.strokeLine(startPointX, startPointY, endPointX, endPointY);
-                    } else if (getMinorHGridLinesVisible()) {
-                        ctx.setStroke((fullRangeY && isZero) ? yAxis.getZeroColor() : minorHGridColor);
-                        ctx.setLineWidth(minorLineWidth);
-                        ctx.strokeLine(startPointX, startPointY, endPointX, endPointY);
-                    }
-                } else if (getMediumHGridLinesVisible() &&
-                           Double.compare(minorTickSpaceBD.setScale(12, BigDecimal.ROUND_HALF_UP).remainder(mediumCheck2).doubleValue(), 0.0) != 0.0 &&
-                           Double.compare(counterBD.setScale(12, BigDecimal.ROUND_HALF_UP).remainder(mediumCheck5).doubleValue(), 0.0) == 0.0) {
-                    // Draw medium tick grid line
-                    ctx.setStroke(mediumHGridColor);
-                    ctx.setLineWidth(mediumLineWidth);
-                    ctx.strokeLine(startPointX, startPointY, endPointX, endPointY);
-                } else if (getMinorHGridLinesVisible() && Double.compare(counterBD.setScale(12, BigDecimal.ROUND_HALF_UP).remainder(minorTickSpaceBD).doubleValue(), 0.0) == 0) {
-                    // Draw minor tick grid line
-                    ctx.setStroke(minorHGridColor);
-                    ctx.setLineWidth(minorLineWidth);
-                    ctx.strokeLine(startPointX, startPointY, endPointX, endPointY);
+                switch(hGridLines.getType(i)) {
+                    case GridLines.MAJOR:
+                        // Draw major tick grid line
+                        boolean isZero = hGridLines.isZero(i);
+                        if (getMajorHGridLinesVisible()) {
+                            ctx.setStroke((fullRangeY && isZero) ? yAxis.getZeroColor() : majorHGridColor);
+                            ctx.setLineWidth(majorLineWidth);
+                            ctx.strokeLine(startPointX, startPointY, endPointX, endPointY);
+                        } else if (getMinorHGridLinesVisible()) {
+                            ctx.setStroke((fullRangeY && isZero) ? yAxis.getZeroColor() : minorHGridColor);
+                            ctx.setLineWidth(minorLineWidth);
+                            ctx.strokeLine(startPointX, startPointY, endPointX, endPointY);
+                        }
+                        break;
+                    case GridLines.MEDIUM:
+                        // Draw medium tick grid line
+                        if (getMediumHGridLinesVisible()) {
+                            ctx.setStroke(mediumHGridColor);
+                            ctx.setLineWidth(mediumLineWidth);
+                            ctx.strokeLine(startPointX, startPointY, endPointX, endPointY);
+                        } else if (getMinorHGridLinesVisible()) {
+                            ctx.setStroke(minorHGridColor);
+                            ctx.setLineWidth(minorLineWidth);
+                            ctx.strokeLine(startPointX, startPointY, endPointX, endPointY);
+                        }
+                        break;
+                    default:
+                        // Draw minor tick grid line
+                        if (getMinorHGridLinesVisible()) {
+                            ctx.setStroke(minorHGridColor);
+                            ctx.setLineWidth(minorLineWidth);
+                            ctx.strokeLine(startPointX, startPointY, endPointX, endPointY);
+                        }
+                        break;
                 }
-
-                counterBD = counterBD.add(minorTickSpaceBD);
-                counter = counterBD.doubleValue();
-                if (counter > maxY) break;
             }
         } else if (AxisType.LOGARITHMIC == yAxisType) {
             // ******************** Logarithmic *******************************
@@ -654,6 +723,13 @@ public class Grid extends Region {
         }
     }
 
+    private boolean isLinear(final Axis AXIS) { return AxisType.LINEAR == AXIS.getType() || AxisType.TEXT == AXIS.getType(); }
+
+    public void dispose() {
+        xAxis.removeChartEventListener(xAxisListener);
+        yAxis.removeChartEventListener(yAxisListener);
+    }
+
 
     // ******************** Resizing ******************************************
     private void resize() {
@@ -672,4 +748,421 @@ public class Grid extends Region {
             drawGrid();
         }
     }
+
+
+    // ******************** Inner Classes *************************************
+    /**
+     * The grid lines of one axis, rasterized into an image of their own. The vertical
+     * lines only depend on the x axis and the horizontal lines only on the y axis, so
+     * panning one axis leaves the image of the other one untouched. If the axis was
+     * panned by a multiple of its minor tick space that is a whole number of pixels,
+     * the image is moved by these pixels and only the exposed strip is rasterized.
+     * Everything else, e.g. a new size, style or tick space, rasterizes the whole image.
+     */
+    private static class GridLayer {
+        static final int                            UNCHANGED       = 0;
+        static final int                            SHIFTED         = 1;
+        static final int                            CHANGED         = 2;
+        static final int                            MARGIN          = 2;
+        static final int                            MAX_DASHES      = 1_000_000;
+        static final double                         STEP_TOLERANCE  = 1e-9;
+        static final double                         PIXEL_TOLERANCE = 1e-6;
+        static final WritablePixelFormat<IntBuffer> PIXEL_FORMAT    = PixelFormat.getIntArgbPreInstance();
+        private final boolean                       vertical;
+        private final GridLines                     lines;
+        private       AxisType                      axisType;
+        private       double                        minValue;
+        private       double                        maxValue;
+        private       double                        minorTickSpace;
+        private       double                        majorTickSpace;
+        private       double                        stepSize;
+        private       boolean                       fullRange;
+        private       Color                         zeroColor;
+        private       Paint[]                       paints;
+        private       boolean[]                     visible;
+        private       double[]                      dashes;
+        private       int                           length;
+        private       int                           extent;
+        private       int                           reusedLines;
+        private       boolean                       rasterized;
+        private       float[][]                     dashCoverage;
+        private       int[]                         pixels;
+        private       WritableImage                 image;
+
+
+        // VERTICAL is true for the vertical grid lines of the x axis
+        GridLayer(final boolean VERTICAL) {
+            vertical     = VERTICAL;
+            lines        = new GridLines(!VERTICAL);
+            paints       = new Paint[3];
+            visible      = new boolean[3];
+            dashCoverage = new float[3][];
+        }
+
+
+        GridLines getLines() { return lines; }
+
+        int getReusedLines() { return reusedLines; }
+
+        WritableImage getImage() { return image; }
+
+        // LENGTH is the size of the grid across the lines and EXTENT the size along the lines
+        int update(final Axis AXIS, final double LENGTH, final double EXTENT, final Paint MAJOR_PAINT, final Paint MEDIUM_PAINT, final Paint MINOR_PAINT,
+                   final boolean MAJOR_VISIBLE, final boolean MEDIUM_VISIBLE, final boolean MINOR_VISIBLE, final double[] DASHES, final boolean RASTERIZE) {
+            AxisType type              = AXIS.getType();
+            double   min               = AXIS.getMinValue();
+            double   max               = AXIS.getMaxValue();
+            double   minorTickSpaceNew = AXIS.getMinorTickSpace();
+            double   majorTickSpaceNew = AXIS.getMajorTickSpace();
+            double   stepSizeNew       = Math.abs(LENGTH / (max - min));
+            boolean  fullRangeNew      = (min < 0 && max > 0);
+            Color    zeroColorNew      = AXIS.getZeroColor();
+            int      lengthNew         = (int) Math.ceil(LENGTH);
+            int      extentNew         = (int) Math.ceil(EXTENT);
+
+            boolean sameStyle = type == axisType && lengthNew == length && extentNew == extent &&
+                                Math.abs(stepSizeNew - stepSize) <= STEP_TOLERANCE * stepSize &&
+                                Double.compare(minorTickSpaceNew, minorTickSpace) == 0 && Double.compare(majorTickSpaceNew, majorTickSpace) == 0 &&
+                                fullRangeNew == fullRange && zeroColorNew.equals(zeroColor) &&
+                                MAJOR_PAINT.equals(paints[GridLines.MAJOR]) && MEDIUM_PAINT.equals(paints[GridLines.MEDIUM]) && MINOR_PAINT.equals(paints[GridLines.MINOR]) &&
+                                MAJOR_VISIBLE == visible[GridLines.MAJOR] && MEDIUM_VISIBLE == visible[GridLines.MEDIUM] && MINOR_VISIBLE == visible[GridLines.MINOR] &&
+                                Arrays.equals(DASHES, dashes);
+            boolean sameRange = Double.compare(min, minValue) == 0 && Double.compare(max, maxValue) == 0;
+
+            if (sameStyle && sameRange && (rasterized || !RASTERIZE)) {
+                reusedLines = lines.size();
+                return UNCHANGED;
+            }
+
+            if (!sameStyle) {
+                axisType                  = type;
+                length                    = lengthNew;
+                extent                    = extentNew;
+                minorTickSpace            = minorTickSpaceNew;
+                majorTickSpace            = majorTickSpaceNew;
+                fullRange                 = fullRangeNew;
+                zeroColor                 = zeroColorNew;
+                paints[GridLines.MAJOR]   = MAJOR_PAINT;
+                paints[GridLines.MEDIUM]  = MEDIUM_PAINT;
+                paints[GridLines.MINOR]   = MINOR_PAINT;
+                visible[GridLines.MAJOR]  = MAJOR_VISIBLE;
+                visible[GridLines.MEDIUM] = MEDIUM_VISIBLE;
+                visible[GridLines.MINOR]  = MINOR_VISIBLE;
+                dashes                    = null == DASHES ? null : DASHES.clone();
+                dashCoverage              = new float[3][];
+            }
+            stepSize = stepSizeNew;
+            minValue = min;
+            maxValue = max;
+
+            boolean linear    = AxisType.LINEAR == type || AxisType.TEXT == type;
+            int     zeroIndex = lines.getZeroIndex();
+            reusedLines = linear && Double.isFinite(stepSize) ? lines.update(min, max, minorTickSpace, majorTickSpace) : lines.clear();
+
+            if (!RASTERIZE) {
+                rasterized = false;
+                return CHANGED;
+            }
+
+            if (sameStyle && rasterized && lines.isContinued()) {
+                double shift      = lines.getShift() * minorTickSpace * stepSize;
+                long   pixelShift = Math.round(shift);
+                if (Math.abs(shift - pixelShift) < PIXEL_TOLERANCE && Math.abs(pixelShift) < length) {
+                    shiftPixels((int) pixelShift);
+                    // The zero line of a vertical axis follows the labels, which move the opposite way of the line types
+                    long movedZeroIndex = zeroIndex < 0 ? -1 : zeroIndex - lines.getShift();
+                    if (fullRange && movedZeroIndex != lines.getZeroIndex()) {
+                        if (zeroIndex >= 0)            { rasterizeLine(movedZeroIndex); }
+                        if (lines.getZeroIndex() >= 0) { rasterizeLine(lines.getZeroIndex()); }
+                    }
+                    upload();
+                    return SHIFTED;
+                }
+            }
+
+            if (null == pixels || pixels.length != length * extent) {
+                pixels = new int[length * extent];
+                image  = vertical ? new WritableImage(length, extent) : new WritableImage(extent, length);
+            }
+            rasterizeStrip(0, length);
+            upload();
+            rasterized = true;
+            return CHANGED;
+        }
+
+        // Moves the content by SHIFT pixels towards the min value of the axis
+        private void shiftPixels(final int SHIFT) {
+            if (vertical) {
+                for (int q = 0 ; q < extent ; q++) {
+                    int row = q * length;
+                    if (SHIFT > 0) {
+                        System.arraycopy(pixels, row + SHIFT, pixels, row, length - SHIFT);
+                    } else if (SHIFT < 0) {
+                        System.arraycopy(pixels, row, pixels, row - SHIFT, length + SHIFT);
+                    }
+                }
+            } else {
+                if (SHIFT > 0) {
+                    System.arraycopy(pixels, SHIFT * extent, pixels, 0, (length - SHIFT) * extent);
+                } else if (SHIFT < 0) {
+                    System.arraycopy(pixels, 0, pixels, -SHIFT * extent, (length + SHIFT) * extent);
+                }
+            }
+
+            // Besides the exposed strip, the pixels at both ends are rasterized again because lines that entered or left the range may overlap them
+            if (SHIFT >= 0) {
+                rasterizeStrip(Math.max(0, length - SHIFT - MARGIN), length);
+                rasterizeStrip(0, Math.min(MARGIN, length));
+            } else {
+                rasterizeStrip(0, Math.min(length, MARGIN - SHIFT));
+                rasterizeStrip(Math.max(0, length - MARGIN), length);
+            }
+        }
+
+        // Rasterizes the pixels around the line with the given INDEX again
+        private void rasterizeLine(final long INDEX) {
+            double position = INDEX * minorTickSpace * stepSize;
+            int    from     = (int) Math.max(0, Math.floor(position) - MARGIN);
+            int    to       = (int) Math.min(length, Math.ceil(position) + MARGIN);
+            if (from < to) { rasterizeStrip(from, to); }
+        }
+
+        // Rasterizes the lines between the pixel positions FROM (inclusive) and TO (exclusive) across the lines
+        private void rasterizeStrip(final int FROM, final int TO) {
+            if (vertical) {
+                for (int q = 0 ; q < extent ; q++) { Arrays.fill(pixels, q * length + FROM, q * length + TO, 0); }
+            } else {
+                Arrays.fill(pixels, FROM * extent, TO * extent, 0);
+            }
+
+            for (int i = 0 ; i < lines.size() ; i++) {
+                byte type  = lines.getType(i);
+                int  style = getStyle(type);
+                if (style < 0) { continue; }
+
+                double lineWidth = LINE_WIDTHS[style];
+                double position  = lines.getOffset(i) * stepSize;
+                double start     = position - lineWidth * 0.5;
+                double end       = position + lineWidth * 0.5;
+                if (end <= FROM || start >= TO) { continue; }
+
+                Color   color    = (GridLines.MAJOR == type && fullRange && lines.isZero(i)) ? zeroColor : (Color) paints[style];
+                float[] coverage = getDashCoverage(style);
+                int     first    = Math.max(FROM, (int) Math.floor(start));
+                int     last     = Math.min(TO, (int) Math.ceil(end));
+                for (int p = first ; p < last ; p++) {
+                    double lineCoverage = Math.min(end, p + 1) - Math.max(start, p);
+                    if (lineCoverage > 0) { blendLine(p, color, lineCoverage, coverage); }
+                }
+            }
+        }
+
+        // Same fallbacks as the canvas drawing, returns the style a line of the given TYPE is drawn with or -1 if it is not visible
+        private int getStyle(final byte TYPE) {
+            switch(TYPE) {
+                case GridLines.MAJOR : return visible[GridLines.MAJOR]  ? GridLines.MAJOR  : visible[GridLines.MINOR] ? GridLines.MINOR : -1;
+                case GridLines.MEDIUM: return visible[GridLines.MEDIUM] ? GridLines.MEDIUM : visible[GridLines.MINOR] ? GridLines.MINOR : -1;
+                default              : return visible[GridLines.MINOR]  ? GridLines.MINOR  : -1;
+            }
+        }
+
+        private void blendLine(final int P, final Color COLOR, final double LINE_COVERAGE, final float[] DASH_COVERAGE) {
+            double alpha = COLOR.getOpacity() * LINE_COVERAGE;
+            double red   = COLOR.getRed() * 255;
+            double green = COLOR.getGreen() * 255;
+            double blue  = COLOR.getBlue() * 255;
+            for (int q = 0 ; q < extent ; q++) {
+                double a = alpha * DASH_COVERAGE[q];
+                if (a <= 0) { continue; }
+                int index = vertical ? q * length + P : P * extent + q;
+                int dst   = pixels[index];
+                double inverse = 1 - a;
+                int    dstA    = (int) Math.round(a * 255 + ((dst >>> 24) & 0xFF) * inverse);
+                int    dstR    = (int) Math.round(red * a + ((dst >> 16) & 0xFF) * inverse);
+                int    dstG    = (int) Math.round(green * a + ((dst >> 8) & 0xFF) * inverse);
+                int    dstB    = (int) Math.round(blue * a + (dst & 0xFF) * inverse);
+                pixels[index] = dstA << 24 | dstR << 16 | dstG << 8 | dstB;
+            }
+        }
+
+        // Coverage of each pixel along a line of the given style by the dash pattern, including the square caps of the dashes
+        private float[] getDashCoverage(final int STYLE) {
+            if (null != dashCoverage[STYLE]) { return dashCoverage[STYLE]; }
+
+            float[] coverage = new float[extent];
+            double  period   = 0;
+            if (null != dashes) {
+                for (double dash : dashes) { period += dash < 0 ? Double.NaN : dash; }
+            }
+            if (null == dashes || dashes.length == 0 || !(period > 0) || extent / period > MAX_DASHES) {
+                Arrays.fill(coverage, 1f);
+            } else {
+                double halfWidth = LINE_WIDTHS[STYLE] * 0.5;
+                double position  = 0;
+                double from      = Double.NaN;
+                double to        = Double.NaN;
+                for (int i = 0 ; position < extent ; i++) {
+                    double dash = dashes[i % dashes.length];
+                    if (i % 2 == 0 && dash > 0) {
+                        double start = Math.max(0, position) - halfWidth;
+                        double end   = Math.min(extent, position + dash) + halfWidth;
+                        // Overlapping caps are merged to not cover a pixel twice
+                        if (start <= to) {
+                            to = end;
+                        } else {
+                            addCoverage(coverage, from, to);
+                            from = start;
+                            to   = end;
+                        }
+                    }
+                    position += dash;
+                }
+                addCoverage(coverage, from, to);
+            }
+            dashCoverage[STYLE] = coverage;
+            return coverage;
+        }
+
+        private void addCoverage(final float[] COVERAGE, final double FROM, final double TO) {
+            if (Double.isNaN(FROM)) { return; }
+            int first = Math.max(0, (int) Math.floor(FROM));
+            int last  = Math.min(COVERAGE.length, (int) Math.ceil(TO));
+            for (int q = first ; q < last ; q++) {
+                COVERAGE[q] = (float) Math.min(1, COVERAGE[q] + Math.min(TO, q + 1) - Math.max(FROM, q));
+            }
+        }
+
+        private void upload() {
+            int imageWidth = vertical ? length : extent;
+            image.getPixelWriter().setPixels(0, 0, imageWidth, vertical ? extent : length, PIXEL_FORMAT, pixels, 0, imageWidth);
+        }
+    }
+
+    /**
+     * The types of the grid lines of a linear axis. Like the tick marks of the axis the
+     * lines start at the min value of the axis and follow each other in the minor tick
+     * space. If the axis is panned by a multiple of the minor tick space, the types of
+     * the lines that stay visible are taken over and only the lines that became visible
+     * have to be classified.
+     */
+    private static class GridLines {
+        static final byte   MINOR     = 0;
+        static final byte   MEDIUM    = 1;
+        static final byte   MAJOR     = 2;
+        static final int    MAX_LINES = 100_000;
+        static final double EPSILON   = 1e-9;
+        private final boolean    verticalAxis;
+        private       double     minorTickSpace;
+        private       double     majorTickSpace;
+        private       BigDecimal origin = BigDecimal.ZERO;
+        private       long       firstIndex;
+        private       int        size;
+        private       int        zeroIndex = -1;
+        private       long       shift;
+        private       boolean    continued;
+        private       byte[]     types = new byte[0];
+
+
+        GridLines(final boolean VERTICAL_AXIS) { verticalAxis = VERTICAL_AXIS; }
+
+
+        int size() { return size; }
+
+        // Distance of the line to the min value of the axis
+        double getOffset(final int I) { return I * minorTickSpace; }
+
+        byte getType(final int I) { return types[I]; }
+
+        boolean isZero(final int I) { return I == zeroIndex; }
+
+        int getZeroIndex() { return zeroIndex; }
+
+        // True if the lines of the last update lie on the same positions as before, shifted by getShift() lines
+        boolean isContinued() { return continued; }
+
+        long getShift() { return shift; }
+
+        int clear() {
+            size      = 0;
+            zeroIndex = -1;
+            continued = false;
+            return 0;
+        }
+
+        // Returns the number of lines whose type was taken over from the previous range
+        int update(final double MIN, final double MAX, final double MINOR_TICK_SPACE, final double MAJOR_TICK_SPACE) {
+            if (!(MINOR_TICK_SPACE > 0) || !(MAX > MIN) || Double.isInfinite(MIN) || Double.isInfinite(MAX) || (MAX - MIN) / MINOR_TICK_SPACE > MAX_LINES) {
+                return clear();
+            }
+            final BigDecimal minBD            = BigDecimal.valueOf(MIN);
+            final BigDecimal minorTickSpaceBD = BigDecimal.valueOf(MINOR_TICK_SPACE);
+            final boolean    sameTicks        = Double.compare(MINOR_TICK_SPACE, minorTickSpace) == 0 && Double.compare(MAJOR_TICK_SPACE, majorTickSpace) == 0;
+
+            // The indices of the lines refer to the origin, they only stay valid if the new min value lies on one of the lines
+            long from = 0;
+            continued = false;
+            if (sameTicks && size > 0) {
+                long index = Math.round((MIN - origin.doubleValue()) / MINOR_TICK_SPACE);
+                continued  = origin.add(minorTickSpaceBD.multiply(BigDecimal.valueOf(index))).setScale(12, BigDecimal.ROUND_HALF_UP)
+                                   .compareTo(minBD.setScale(12, BigDecimal.ROUND_HALF_UP)) == 0;
+                from       = index;
+            }
+            if (!continued) {
+                origin     = minBD;
+                from       = 0;
+                firstIndex = 0;
+                size       = 0;
+            }
+            shift = from - firstIndex;
+
+            final int    newSize  = (int) Math.floor((MAX - MIN) / MINOR_TICK_SPACE + EPSILON) + 1;
+            final byte[] newTypes = types.length >= newSize ? types : new byte[newSize];
+            final long   to       = from + newSize - 1;
+
+            long reusedFrom = Math.max(from, firstIndex);
+            long reusedTo   = Math.min(to, firstIndex + size - 1);
+            if (reusedFrom > reusedTo) {
+                reusedFrom = to + 1;
+                reusedTo   = to;
+            } else {
+                System.arraycopy(types, (int) (reusedFrom - firstIndex), newTypes, (int) (reusedFrom - from), (int) (reusedTo - reusedFrom + 1));
+            }
+
+            // Same classification as the tick marks in Axis.drawAxis()
+            final BigDecimal majorTickSpaceBD = BigDecimal.valueOf(MAJOR_TICK_SPACE);
+            final BigDecimal mediumCheck5     = BigDecimal.valueOf(5 * MINOR_TICK_SPACE);
+            final boolean    mediumPossible   = minorTickSpaceBD.setScale(12, BigDecimal.ROUND_HALF_UP).remainder(BigDecimal.valueOf(2 * MINOR_TICK_SPACE)).compareTo(BigDecimal.ZERO) != 0;
+            for (long index = from ; index <= to ; index++) {
+                if (index == reusedFrom) {
+                    index = reusedTo;
+                    continue;
+                }
+                BigDecimal counter = minBD.add(minorTickSpaceBD.multiply(BigDecimal.valueOf(index - from))).setScale(12, BigDecimal.ROUND_HALF_UP);
+                byte       type;
+                if (MAJOR_TICK_SPACE > 0 && counter.remainder(majorTickSpaceBD).compareTo(BigDecimal.ZERO) == 0) {
+                    type = MAJOR;
+                } else if (mediumPossible && counter.remainder(mediumCheck5).compareTo(BigDecimal.ZERO) == 0) {
+                    type = MEDIUM;
+                } else {
+                    type = MINOR;
+                }
+                newTypes[(int) (index - from)] = type;
+            }
+
+            // The axis marks the tick of the value 0 on a horizontal axis and the one labeled 0 on a vertical axis
+            long zero = verticalAxis ? Math.round(MAX / MINOR_TICK_SPACE) : Math.round(-MIN / MINOR_TICK_SPACE);
+            zeroIndex = -1;
+            if (zero >= 0 && zero < newSize) {
+                double counter = minBD.add(minorTickSpaceBD.multiply(BigDecimal.valueOf(zero))).doubleValue();
+                if (verticalAxis ? Double.compare(0.0, MAX - counter + MIN) == 0 : Double.compare(0.0, counter) == 0) { zeroIndex = (int) zero; }
+            }
+
+            types          = newTypes;
+            minorTickSpace = MINOR_TICK_SPACE;
+            majorTickSpace = MAJOR_TICK_SPACE;
+            firstIndex     = from;
+            size           = newSize;
+            return (int) (reusedTo - reusedFrom + 1);
+        }
+    }
 }
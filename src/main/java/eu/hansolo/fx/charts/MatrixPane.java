@@ -17,10 +17,13 @@
 package eu.hansolo.fx.charts;
 
 import eu.hansolo.fx.charts.PixelMatrix.PixelShape;
+import eu.hansolo.fx.charts.PixelMatrix.Renderer;
 import eu.hansolo.fx.charts.data.MatrixItem;
 import eu.hansolo.fx.charts.series.MatrixItemSeries;
+import eu.hansolo.fx.charts.tools.ChartMetrics;
 import eu.hansolo.fx.charts.tools.ColorMapping;
 import eu.hansolo.fx.charts.tools.Helper;
+import eu.hansolo.fx.charts.tools.RowBands;
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.DoublePropertyBase;
 import javafx.beans.property.ObjectProperty;
@@ -33,14 +36,18 @@ import javafx.scene.paint.Color;
 import javafx.scene.paint.LinearGradient;
 import javafx.scene.paint.Paint;
 
+import java.util.List;
+
 
 public class MatrixPane<T extends MatrixItem> extends Region implements ChartArea {
-    private static final double                PREFERRED_WIDTH  = 250;
-    private static final double                PREFERRED_HEIGHT = 250;
-    private static final double                MINIMUM_WIDTH    = 0;
-    private static final double                MINIMUM_HEIGHT   = 0;
-    private static final double                MAXIMUM_WIDTH    = 4096;
-    private static final double                MAXIMUM_HEIGHT   = 4096;
+    private static final double                PREFERRED_WIDTH         = 250;
+    private static final double                PREFERRED_HEIGHT        = 250;
+    private static final double                MINIMUM_WIDTH           = 0;
+    private static final double                MINIMUM_HEIGHT          = 0;
+    private static final double                MAXIMUM_WIDTH           = 4096;
+    private static final double                MAXIMUM_HEIGHT          = 4096;
+    private static final int                   LUT_SIZE                = 1024;
+    public  static final double                DEFAULT_RANGE_TOLERANCE = 0.05;
     private static       double                aspectRatio;
     private              boolean               keepAspect;
     private              double                size;
@@ -52,9 +59,19 @@ public class MatrixPane<T extends MatrixItem> extends Region implements ChartAre
     private              MatrixItemSeries<T>   series;
     private              PixelMatrix           matrix;
     private              LinearGradient        matrixGradient;
+    private              int[]                 colorLut;
+    private              double[]              waterfallValues;
+    private              int[]                 waterfallRow;
+    private              int                   waterfallHead;
+    private              int                   waterfallSize;
     private              double                minZ;
     private              double                maxZ;
     private              double                rangeZ;
+    private              double                colorMinZ;
+    private              double                colorRangeZ;
+    private              boolean               colorRangeValid;
+    private              boolean               autoRangeZ;
+    private              double                rangeTolerance;
     private              double                scaleX;
     private              double                scaleY;
     private              double                scaleZ;
@@ -70,6 +87,7 @@ public class MatrixPane<T extends MatrixItem> extends Region implements ChartAre
     private              DoubleProperty        lowerBoundZ;
     private              double                _upperBoundZ;
     private              DoubleProperty        upperBoundZ;
+    private              ChartMetrics          metrics;
 
 
     // ******************** Constructors **************************************
@@ -83,6 +101,9 @@ public class MatrixPane<T extends MatrixItem> extends Region implements ChartAre
         _chartBackground = BACKGROUND;
         series           = SERIES;
         matrixGradient   = ColorMapping.BLUE_CYAN_GREEN_YELLOW_RED.getGradient();
+        colorLut         = Helper.createColorLookupTable(matrixGradient, LUT_SIZE);
+        autoRangeZ       = true;
+        rangeTolerance   = DEFAULT_RANGE_TOLERANCE;
         scaleX           = 1;
         scaleY           = 1;
         scaleZ           = 1;
@@ -93,6 +114,7 @@ public class MatrixPane<T extends MatrixItem> extends Region implements ChartAre
         _lowerBoundZ     = 0;
         _upperBoundZ     = 100;
 
+        metrics          = ChartMetrics.register(this);
         initGraphics();
         registerListeners();
     }
@@ -114,6 +136,7 @@ public class MatrixPane<T extends MatrixItem> extends Region implements ChartAre
         matrix = PixelMatrixBuilder.create()
                                    .prefSize(PREFERRED_WIDTH, PREFERRED_HEIGHT)
                                    .pixelShape(PixelShape.SQUARE)
+                                   .renderer(Renderer.IMAGE)
                                    .useSpacer(true)
                                    .squarePixels(false)
                                    .pixelOnColor(Color.BLACK)
@@ -289,17 +312,101 @@ public class MatrixPane<T extends MatrixItem> extends Region implements ChartAre
 
     public double getValueAt(final int X, final int Y) throws Exception {
         if (null == getSeries()) { throw new Exception("Series is null"); }
+        if (ChartType.WATERFALL == getSeries().getChartType()) { return getWaterfallValueAt(X, Y); }
         if (getSeries().getItems().isEmpty()) { throw new Exception("Series is empty"); }
         return getSeries().getAt(X, Y);
     }
+    /**
+     * Sets the z value of the cell X, Y and colors the cell. With auto range
+     * the z range only widens until the next redraw of the whole matrix. The
+     * matrix is only recolored if the range grows by more than the range
+     * tolerance beyond the range the cells were colored with, values in the
+     * tolerance get the color at the end of the gradient. Without auto range
+     * the cell is colored using the lower and upper z bound. Until the matrix
+     * was drawn completely, the range starts with the lower and upper z bound.
+     * The cell is colored in any case, even if the series has no item for it.
+     * @param X x of the cell
+     * @param Y y of the cell
+     * @param Z the new z value of the cell
+     */
     public void setValueAt(final int X, final int Y, final double Z) {
         if (null != getSeries()) {
-            minZ   = Math.min(minZ, Z);
-            maxZ   = Math.max(maxZ, Z);
-            rangeZ = maxZ - minZ;
+            getSeries().setAt(X, Y, Z);
+            if (!colorRangeValid) {
+                minZ            = getLowerBoundZ();
+                maxZ            = getUpperBoundZ();
+                rangeZ          = getRangeZ();
+                colorMinZ       = minZ;
+                colorRangeZ     = rangeZ;
+                colorRangeValid = true;
+            }
+            if (autoRangeZ) {
+                minZ   = Math.min(minZ, Z);
+                maxZ   = Math.max(maxZ, Z);
+                rangeZ = maxZ - minZ;
+
+                final double tolerance = rangeTolerance * colorRangeZ;
+                if (minZ < colorMinZ - tolerance || maxZ > colorMinZ + colorRangeZ + tolerance) { drawChart(); }
+            }
+            // drawChart() only recolors the cells that have an item in the series
+            matrix.setPixel(X, Y, getColorValue((Z - colorMinZ) / colorRangeZ));
+        }
+    }
+
+    /**
+     * With auto range (default) the colors of the cells are scaled to the
+     * minimum and maximum z value of the series, otherwise the lower and
+     * upper z bound define the range of the colors.
+     * @return true if the z range is taken from the series
+     */
+    public boolean isAutoRangeZ() { return autoRangeZ; }
+    public void setAutoRangeZ(final boolean AUTO_RANGE) {
+        autoRangeZ = AUTO_RANGE;
+        redraw();
+    }
 
-            Color color = Helper.getColorAt(matrixGradient, Z / rangeZ);
-            matrix.setPixel(X, Y, color);
+    /**
+     * The fraction of the z range by which the range can grow in
+     * setValueAt() before all cells are recolored.
+     * @return the range tolerance as fraction of the z range
+     */
+    public double getRangeTolerance() { return rangeTolerance; }
+    public void setRangeTolerance(final double TOLERANCE) { rangeTolerance = Math.max(0, TOLERANCE); }
+
+    /**
+     * Appends a row of values (e.g. a spectrum) to a WATERFALL chart. The new
+     * row is drawn at the top of the matrix and the older rows scroll down by
+     * one row, the oldest row drops out at the bottom. The values are scaled
+     * to the columns of the matrix, if there are more values than columns
+     * each column shows the maximum of its values (like the peak of the bins
+     * of a spectrum), if there are less each value spans several columns.
+     * Only the new row is colored, using the lower and upper z bound as range
+     * of the color gradient.
+     * @param VALUES the values of the new row
+     */
+    public void appendRow(final double... VALUES) {
+        if (null == series || ChartType.WATERFALL != series.getChartType()) { return; }
+        final int cols = matrix.getCols();
+        final int rows = matrix.getRows();
+        if (cols == 0 || rows == 0) { return; }
+        if (null == waterfallValues || waterfallValues.length != cols * rows) { resetWaterfall(cols, rows); }
+
+        metrics.startRedraw();
+        try {
+            // The ring buffer stores the rows from the newest to the oldest starting at the head
+            waterfallHead = waterfallHead == 0 ? rows - 1 : waterfallHead - 1;
+            waterfallSize = Math.min(rows, waterfallSize + 1);
+            final int    offset      = waterfallHead * cols;
+            final double lowerBoundZ = getLowerBoundZ();
+            final double rangeZ      = getRangeZ();
+            scaleRow(VALUES, waterfallValues, offset, cols);
+            for (int x = 0 ; x < cols ; x++) {
+                waterfallRow[x] = getColorValue((waterfallValues[offset + x] - lowerBoundZ) / rangeZ);
+            }
+            matrix.shiftDown(waterfallRow);
+            metrics.addItemsDrawn(cols);
+        } finally {
+            metrics.endRedraw();
         }
     }
 
@@ -312,30 +419,119 @@ public class MatrixPane<T extends MatrixItem> extends Region implements ChartAre
     public LinearGradient getMatrixGradient() { return matrixGradient; }
     public void setMatrixGradient(final LinearGradient GRADIENT) {
         matrixGradient = GRADIENT;
+        colorLut       = Helper.createColorLookupTable(matrixGradient, LUT_SIZE);
         drawChart();
     }
 
+    public ChartMetrics getMetrics() { return metrics; }
+
 
     // ******************** Draw Chart ****************************************
     private void drawChart() {
-        if (null == series || series.getItems().isEmpty()) return;
-
+        if (null == series) return;
         final ChartType TYPE = series.getChartType();
-
-        switch(TYPE) {
-            case MATRIX_HEATMAP: drawMatrixHeatMap(series); break;
+        if (ChartType.WATERFALL != TYPE && series.getItems().isEmpty()) {
+            colorRangeValid = false;
+            return;
+        }
+        metrics.startRedraw();
+        try {
+            switch(TYPE) {
+                case MATRIX_HEATMAP: drawMatrixHeatMap(series); metrics.addItemsDrawn(series.getItems().size()); break;
+                case WATERFALL     : drawWaterfall(); metrics.addItemsDrawn(waterfallSize * matrix.getCols()); break;
+                default            : metrics.addItemsSkipped(series.getItems().size()); break;
+            }
+        } finally {
+            metrics.endRedraw();
         }
     }
 
     private void drawMatrixHeatMap(final MatrixItemSeries<T> SERIES) {
-        minZ   = SERIES.getItems().stream().mapToDouble(MatrixItem::getZ).min().getAsDouble();
-        maxZ   = SERIES.getItems().stream().mapToDouble(MatrixItem::getZ).max().getAsDouble();
-        rangeZ = maxZ - minZ;
-
-        SERIES.getItems().forEach(data -> {
-            Color color = Helper.getColorAt(matrixGradient, data.getZ() / rangeZ);
-            matrix.setPixel(data.getX(), data.getY(), color);
+        final List<T> items = SERIES.getItems();
+        final int     size  = items.size();
+        if (autoRangeZ) {
+            minZ = Double.MAX_VALUE;
+            maxZ = -Double.MAX_VALUE;
+            for (int i = 0 ; i < size ; i++) {
+                double z = items.get(i).getZ();
+                if (z < minZ) { minZ = z; }
+                if (z > maxZ) { maxZ = z; }
+            }
+            rangeZ = maxZ - minZ;
+        } else {
+            minZ   = getLowerBoundZ();
+            maxZ   = getUpperBoundZ();
+            rangeZ = getRangeZ();
+        }
+        colorMinZ       = minZ;
+        colorRangeZ     = rangeZ;
+        colorRangeValid = true;
+
+        // The colors of large matrices are looked up in parallel bands, the matrix itself is not thread safe
+        final int[] colors = new int[size];
+        RowBands.process(size, 1, (from, to) -> {
+            for (int i = from ; i < to ; i++) { colors[i] = getColorValue((items.get(i).getZ() - colorMinZ) / colorRangeZ); }
         });
+        for (int i = 0 ; i < size ; i++) {
+            T item = items.get(i);
+            matrix.setPixel(item.getX(), item.getY(), colors[i]);
+        }
+        matrix.drawMatrix();
+    }
+
+    // Recolors all rows of the waterfall, e.g. after the gradient or the z bounds changed
+    private void drawWaterfall() {
+        final int cols = matrix.getCols();
+        final int rows = matrix.getRows();
+        if (null == waterfallValues || waterfallValues.length != cols * rows) { resetWaterfall(cols, rows); }
+        final double lowerBoundZ = getLowerBoundZ();
+        final double rangeZ      = getRangeZ();
+        for (int y = 0 ; y < rows ; y++) {
+            if (y >= waterfallSize) {
+                for (int x = 0 ; x < cols ; x++) { matrix.setPixel(x, y, false); }
+                continue;
+            }
+            final int offset = ((waterfallHead + y) % rows) * cols;
+            for (int x = 0 ; x < cols ; x++) { matrix.setPixel(x, y, getColorValue((waterfallValues[offset + x] - lowerBoundZ) / rangeZ)); }
+        }
+        matrix.drawMatrix();
+    }
+
+    private double getWaterfallValueAt(final int X, final int Y) throws Exception {
+        final int cols = matrix.getCols();
+        if (X < 0 || X >= cols || Y < 0 || Y >= waterfallSize) { throw new Exception("No value at " + X + ", " + Y); }
+        return waterfallValues[((waterfallHead + Y) % matrix.getRows()) * cols + X];
+    }
+
+    // Scales the VALUES to the COLS columns starting at OFFSET in ROW, several values per column keep their maximum
+    private void scaleRow(final double[] VALUES, final double[] ROW, final int OFFSET, final int COLS) {
+        final int noOfValues = VALUES.length;
+        if (noOfValues <= COLS) {
+            for (int x = 0 ; x < COLS ; x++) { ROW[OFFSET + x] = noOfValues == 0 ? Double.NaN : VALUES[(int) ((long) x * noOfValues / COLS)]; }
+            return;
+        }
+        for (int x = 0 ; x < COLS ; x++) {
+            final int from = (int) ((long) x * noOfValues / COLS);
+            final int to   = (int) ((long) (x + 1) * noOfValues / COLS);
+            double    max  = Double.NaN;
+            for (int i = from ; i < to ; i++) {
+                if (Double.isNaN(max) || VALUES[i] > max) { max = VALUES[i]; }
+            }
+            ROW[OFFSET + x] = max;
+        }
+    }
+
+    private void resetWaterfall(final int COLS, final int ROWS) {
+        waterfallValues = new double[COLS * ROWS];
+        waterfallRow    = new int[COLS];
+        waterfallHead   = 0;
+        waterfallSize   = 0;
+    }
+
+    // ARGB value of the matrix gradient at the given fraction (0 - 1)
+    private int getColorValue(final double FRACTION) {
+        final double fraction = Double.isNaN(FRACTION) ? 0 : Helper.clamp(0.0, 1.0, FRACTION);
+        return colorLut[(int) Math.round(fraction * (LUT_SIZE - 1))];
     }
 
 
@@ -22,6 +22,7 @@ import eu.hansolo.fx.charts.data.DataObject;
 import eu.hansolo.fx.charts.event.ChartEvent;
 import eu.hansolo.fx.charts.event.ChartEventListener;
 import eu.hansolo.fx.charts.event.ItemEventListener;
+import eu.hansolo.fx.charts.tools.CoordinateTransform;
 import eu.hansolo.fx.charts.tools.CtxBounds;
 import eu.hansolo.fx.charts.tools.Helper;
 import eu.hansolo.fx.charts.tools.Order;
@@ -124,6 +125,8 @@ public class ParallelCoordinatesChart extends Region {
     private              Rectangle                                rect;
     private              Text                                     dragText;
     private              boolean                                  wasDragged;
+    private              CoordinateTransform                      transform;
+    private              double[]                                 valueBuffer;
     private              CopyOnWriteArrayList<ChartEventListener> listeners;
 
 
@@ -160,6 +163,8 @@ public class ParallelCoordinatesChart extends Region {
         };
         categories            = new ArrayList<>();
         categoryObjectMap     = new HashMap<>();
+        transform             = new CoordinateTransform();
+        valueBuffer           = new double[0];
         categoryObjectItemMap = new HashMap<>();
         wasDragged            = false;
         mouseHandler          = e -> handleMouseEvent(e);
@@ -834,14 +839,20 @@ public class ParallelCoordinatesChart extends Region {
 
             }
 
-            categoryObjectMap.get(category).forEach(obj -> {
-                ChartItem item  = obj.getProperties().get(category);
-                double    itemY = (item.getValue() - minValue) * stepSize;
+            List<DataObject> objects   = categoryObjectMap.get(category);
+            int              noOfItems = objects.size();
+            if (valueBuffer.length < noOfItems) { valueBuffer = new double[noOfItems]; }
+            for (int j = 0 ; j < noOfItems ; j++) { valueBuffer[j] = objects.get(j).getProperties().get(category).getValue(); }
+            transform.setY(AxisType.LINEAR, minValue, maxValue, axisY, axisHeight);
+            transform.transformY(valueBuffer, valueBuffer, 0, noOfItems);
+            for (int j = 0 ; j < noOfItems ; j++) {
+                DataObject obj  = objects.get(j);
+                ChartItem  item = obj.getProperties().get(category);
                 item.setX(axisX);
-                item.setY(maxY - itemY);
+                item.setY(valueBuffer[j]);
                 Key key = new Key(category, obj);
                 categoryObjectItemMap.put(key, item);
-            });
+            }
         }
     }
     
@@ -30,17 +30,26 @@ import javafx.scene.Node;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.control.Tooltip;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.Region;
 import javafx.scene.paint.Color;
 
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 
 @DefaultProperty("children")
 public class PixelMatrix extends Region {
     public  enum PixelShape { SQUARE, ROUNDED_RECT, ROUND }
+    public  enum Renderer { SHAPES, IMAGE }
     public  static final double                            DEFAULT_SPACER_SIZE_FACTOR = 0.05;
+    private static final PixelFormat<IntBuffer>            PIXEL_FORMAT               = PixelFormat.getIntArgbInstance();
+    private static final int                               MASK_SAMPLES               = 4;
     private static final int                               RED_MASK                   = 255 << 16;
     private static final int                               GREEN_MASK                 = 255 << 8;
     private static final int                               BLUE_MASK                  = 255;
@@ -57,7 +66,23 @@ public class PixelMatrix extends Region {
     private PixelShape                                     pixelShape;
     private int                                            cols;
     private int                                            rows;
-    private int[][]                                        matrix;
+    private int[]                                          matrix;
+    private int                                            originX;
+    private int                                            originY;
+    private boolean                                        scrolled;
+    private Renderer                                       renderer;
+    private boolean[]                                      dirtyPixels;
+    private int                                            dirtyFromRow;
+    private int                                            dirtyToRow;
+    private boolean                                        allDirty;
+    private WritableImage                                  frameImage;
+    private int[]                                          frame;
+    private int                                            frameWidth;
+    private int                                            frameHeight;
+    private int                                            cellWidth;
+    private int                                            cellHeight;
+    private int                                            cellSpacer;
+    private Map<Long, float[]>                             shapeMasks;
     private double                                         pixelSize;
     private double                                         pixelWidth;
     private double                                         pixelHeight;
@@ -92,7 +117,10 @@ public class PixelMatrix extends Region {
         pixelShape             = DOT_SHAPE;
         cols                   = COLS;
         rows                   = ROWS;
-        matrix                 = new int[cols][rows];
+        matrix                 = new int[cols * rows];
+        renderer               = Renderer.SHAPES;
+        dirtyPixels            = new boolean[cols * rows];
+        shapeMasks             = new HashMap<>();
         useSpacer              = true;
         squarePixels           = true;
         spacerSizeFactor       = DEFAULT_SPACER_SIZE_FACTOR;
@@ -107,11 +135,8 @@ public class PixelMatrix extends Region {
     // ******************** Initialization ************************************
     private void initGraphics() {
         // prefill matrix with pixelOffColor
-        for (int y = 0 ; y < rows ; y++) {
-            for (int x = 0 ; x < cols ; x++) {
-                matrix[x][y] = pixelOffColor;
-            }
-        }
+        Arrays.fill(matrix, pixelOffColor);
+        markAllDirty();
 
         if (Double.compare(getPrefWidth(), 0.0) <= 0 || Double.compare(getPrefHeight(), 0.0) <= 0 ||
             Double.compare(getWidth(), 0.0) <= 0 || Double.compare(getHeight(), 0.0) <= 0) {
@@ -140,9 +165,12 @@ public class PixelMatrix extends Region {
 
     public void setColsAndRows(final int[] COLS_AND_ROWS) { setColsAndRows(COLS_AND_ROWS[0], COLS_AND_ROWS[1]); }
     public void setColsAndRows(final int COLS, final int ROWS) {
-        cols   = COLS;
-        rows   = ROWS;
-        matrix = new int[cols][rows];
+        cols        = COLS;
+        rows        = ROWS;
+        originX     = 0;
+        originY     = 0;
+        matrix      = new int[cols * rows];
+        dirtyPixels = new boolean[cols * rows];
         initGraphics();
         resize();
     }
@@ -150,23 +178,23 @@ public class PixelMatrix extends Region {
     public Color getPixelOnColor() { return convertToColor(pixelOnColor); }
     public void setPixelOnColor(final Color COLOR) {
         pixelOnColor = convertToInt(COLOR);
+        markAllDirty();
         drawMatrix();
     }
 
     public Color getPixelOffColor() { return convertToColor(pixelOffColor); }
     public void setPixelOffColor(final Color COLOR) {
         pixelOffColor = convertToInt(COLOR);
-        for (int y = 0 ; y < rows ; y++) {
-            for (int x = 0 ; x < cols ; x++) {
-                matrix[x][y] = pixelOffColor;
-            }
-        }
+        Arrays.fill(matrix, pixelOffColor);
+        markAllDirty();
         drawMatrix();
     }
 
     public PixelShape getPixelShape() { return pixelShape; }
     public void setPixelShape(final PixelShape SHAPE) {
         pixelShape = SHAPE;
+        shapeMasks.clear();
+        markAllDirty();
         drawMatrix();
     }
 
@@ -187,6 +215,31 @@ public class PixelMatrix extends Region {
         spacerSizeFactor         = Helper.clamp(0.0, 0.2, FACTOR);
         spacer                   = useSpacer ? pixelSize * spacerSizeFactor : 0;
         pixelSizeMinusDoubleSpacer = pixelSize - spacer * 2;
+        cellSpacer               = (int) Math.round(spacer);
+        shapeMasks.clear();
+        markAllDirty();
+        drawMatrix();
+    }
+
+    public Renderer getRenderer() { return renderer; }
+    /**
+     * The SHAPES renderer fills a shape for every pixel of the matrix on
+     * each call of drawMatrix(). The IMAGE renderer rasterizes the pixels
+     * into an image buffer and only rasterizes and draws the pixels that
+     * changed since the last call of drawMatrix(), which makes it possible
+     * to update large matrices at full frame rate. The IMAGE renderer
+     * rasterizes each cell with a whole number of pixels (the cell size
+     * rounded down, at least one pixel), so that shifted regions of its
+     * image buffer line up with the cells, and scales the image buffer to
+     * the size of the matrix.
+     * @param RENDERER the renderer that should be used to draw the matrix
+     */
+    public void setRenderer(final Renderer RENDERER) {
+        if (null == RENDERER || renderer == RENDERER) { return; }
+        renderer   = RENDERER;
+        frame      = null;
+        frameImage = null;
+        markAllDirty();
         drawMatrix();
     }
 
@@ -195,7 +248,15 @@ public class PixelMatrix extends Region {
     public void setPixel(final int X, final int Y, final int COLOR_VALUE) {
         if (X >= cols || X < 0) return;
         if (Y >= rows || Y < 0) return;
-        matrix[X][Y] = COLOR_VALUE;
+        final int index = index(X, Y);
+        if (matrix[index] == COLOR_VALUE) { return; }
+        matrix[index] = COLOR_VALUE;
+        if (!dirtyPixels[index]) {
+            final int row = index / cols;
+            dirtyPixels[index] = true;
+            dirtyFromRow       = Math.min(dirtyFromRow, row);
+            dirtyToRow         = Math.max(dirtyToRow, row);
+        }
     }
 
     public void setPixelWithRedraw(final int X, final int Y, final boolean ON) {
@@ -221,7 +282,21 @@ public class PixelMatrix extends Region {
     public int getCols() { return cols; }
     public int getRows() { return rows; }
 
-    public int[][] getMatrix() { return matrix; }
+    /**
+     * Returns a copy of the color values of the matrix as [x][y]. The matrix
+     * is no longer stored as int[][], so other than in earlier versions the
+     * returned array is not the live matrix and changes to it are not shown.
+     * @return a copy of the color values of the matrix as [x][y]
+     * @deprecated use getColorValueAt() to read and setPixel() to change the matrix
+     */
+    @Deprecated
+    public int[][] getMatrix() {
+        int[][] copy = new int[cols][rows];
+        for (int y = 0 ; y < rows ; y++) {
+            for (int x = 0 ; x < cols ; x++) { copy[x][y] = matrix[index(x, y)]; }
+        }
+        return copy;
+    }
 
     public static Color convertToColor(final int COLOR_VALUE) {
         return Color.rgb((COLOR_VALUE & RED_MASK) >> 16, (COLOR_VALUE & GREEN_MASK) >> 8, (COLOR_VALUE & BLUE_MASK), ALPHA_FACTOR * ((COLOR_VALUE & ALPHA_MASK) >>> 24));
@@ -241,54 +316,61 @@ public class PixelMatrix extends Region {
     public static int getBitAt(final int X, final int Y, final int[] BYTE_ARRAY) { return (BYTE_ARRAY[Y] >> X) & 1; }
     public static boolean getBitAtBoolean(final int X, final int Y, final int[] BYTE_ARRAY) { return ((BYTE_ARRAY[Y] >> X) & 1) == 1; }
 
-    public int getColorValueAt(final int X, final int Y) { return matrix[X][Y]; }
+    /**
+     * Returns the ARGB color value of the pixel X, Y or the pixel off color
+     * if X, Y is not part of the matrix.
+     * @param X x of the pixel
+     * @param Y y of the pixel
+     * @return the ARGB color value of the pixel X, Y
+     */
+    public int getColorValueAt(final int X, final int Y) {
+        if (X >= cols || X < 0) return pixelOffColor;
+        if (Y >= rows || Y < 0) return pixelOffColor;
+        return matrix[index(X, Y)];
+    }
 
-    public Color getColorAt(final int X, final int Y) { return convertToColor(matrix[X][Y]); }
+    public Color getColorAt(final int X, final int Y) { return convertToColor(getColorValueAt(X, Y)); }
 
+    /**
+     * The shift operations only move the origin of the matrix, the column
+     * or row that is shifted out of the matrix comes in on the other side.
+     * The IMAGE renderer draws the shifted matrix by copying the regions of
+     * its image buffer, so that only the pixels that are set after the shift
+     * have to be rasterized.
+     */
     public void shiftLeft() {
-        int[] firstColumn = new int[rows];
-        for (int y = 0 ; y < rows ; y++) { firstColumn[y] = matrix[0][y]; }
-        for (int y = 0 ; y < rows ; y++) {
-            for (int x = 1 ; x < cols ; x++) {
-                matrix[x - 1][y] = matrix[x][y];
-            }
-        }
-        for (int y = 0 ; y < rows ; y++) { matrix[cols - 1][y] = firstColumn[y]; }
-        drawMatrix();
+        if (cols == 0) { return; }
+        originX = originX == cols - 1 ? 0 : originX + 1;
+        scroll();
     }
     public void shiftRight() {
-        int[] lastColumn = new int[rows];
-        for (int y = 0 ; y < rows ; y++) { lastColumn[y] = matrix[cols - 1][y]; }
-        for (int y = 0 ; y < rows ; y++) {
-            for (int x = cols - 2 ; x >= 0 ; x--) {
-                matrix[x + 1][y] = matrix[x][y];
-            }
-        }
-        for (int y = 0 ; y < rows ; y++) { matrix[0][y] = lastColumn[y]; }
-        drawMatrix();
+        if (cols == 0) { return; }
+        originX = originX == 0 ? cols - 1 : originX - 1;
+        scroll();
     }
 
     public void shiftUp() {
-        int[] firstRow = new int[cols];
-        for (int x = 0 ; x < cols ; x++) { firstRow[x] = matrix[x][0]; }
-        for (int y = 1 ; y < rows ; y++) {
-            for (int x = 0 ; x < cols ; x++) {
-                matrix[x][y - 1] = matrix[x][y];
-            }
-        }
-        for (int x = 0 ; x < cols ; x++) { matrix[x][rows - 1] = firstRow[x]; }
-        drawMatrix();
+        if (rows == 0) { return; }
+        originY = originY == rows - 1 ? 0 : originY + 1;
+        scroll();
     }
     public void shiftDown() {
-        int[] lastRow = new int[cols];
-        for (int x = 0 ; x < cols ; x++) { lastRow[x] = matrix[x][rows - 1]; }
-        for (int y = rows - 2 ; y >= 0 ; y--) {
-            for (int x = 0 ; x < cols ; x++) {
-                matrix[x][y + 1] = matrix[x][y];
-            }
-        }
-        for (int x = 0 ; x < cols ; x++) { matrix[x][0] = lastRow[x]; }
-        drawMatrix();
+        if (rows == 0) { return; }
+        originY = originY == 0 ? rows - 1 : originY - 1;
+        scroll();
+    }
+    /**
+     * Shifts the matrix down by one row and sets the color values of the new
+     * top row before drawing the matrix once, e.g. to append a row to a
+     * waterfall display.
+     * @param TOP_ROW the ARGB color values of the new top row
+     */
+    public void shiftDown(final int[] TOP_ROW) {
+        if (rows == 0) { return; }
+        originY = originY == 0 ? rows - 1 : originY - 1;
+        final int length = Math.min(cols, TOP_ROW.length);
+        for (int x = 0 ; x < length ; x++) { setPixel(x, 0, TOP_ROW[x]); }
+        scroll();
     }
 
     public void setAllPixelsOn() {
@@ -308,7 +390,21 @@ public class PixelMatrix extends Region {
         drawMatrix();
     }
 
+    /**
+     * Draws the matrix. The IMAGE renderer only draws the rows of the
+     * pixels that changed since the last call.
+     */
     public void drawMatrix() {
+        if (Renderer.IMAGE == renderer) {
+            drawMatrixImage();
+        } else {
+            drawMatrixShapes();
+        }
+    }
+
+    private void drawMatrixShapes() {
+        clearDirty();
+        scrolled = false;
         ctx.clearRect(0, 0, width, height);
         switch(pixelShape) {
             case ROUNDED_RECT:
@@ -316,7 +412,7 @@ public class PixelMatrix extends Region {
                 CtxCornerRadii cornerRadii = new CtxCornerRadii(pixelSize * 0.125);
                 for (int y = 0; y < rows; y++) {
                     for (int x = 0; x < cols; x++) {
-                        ctx.setFill(convertToColor(matrix[x][y]));
+                        ctx.setFill(convertToColor(matrix[index(x, y)]));
                         bounds.setX(x * pixelWidth + spacer);
                         bounds.setY(y * pixelHeight + spacer);
                         Helper.drawRoundedRect(ctx, bounds, cornerRadii);
@@ -327,7 +423,7 @@ public class PixelMatrix extends Region {
             case ROUND:
                 for (int y = 0; y < rows; y++) {
                     for (int x = 0; x < cols; x++) {
-                        ctx.setFill(convertToColor(matrix[x][y]));
+                        ctx.setFill(convertToColor(matrix[index(x, y)]));
                         ctx.fillOval(x * pixelWidth + spacer, y * pixelHeight + spacer, pixelWidthMinusDoubleSpacer, pixelHeightMinusDoubleSpacer);
                     }
                 }
@@ -336,7 +432,7 @@ public class PixelMatrix extends Region {
             default    :
                 for (int y = 0; y < rows; y++) {
                     for (int x = 0; x < cols; x++) {
-                        ctx.setFill(convertToColor(matrix[x][y]));
+                        ctx.setFill(convertToColor(matrix[index(x, y)]));
                         ctx.fillRect(x * pixelWidth + spacer, y * pixelHeight + spacer, pixelWidthMinusDoubleSpacer, pixelHeightMinusDoubleSpacer);
                     }
                 }
@@ -344,6 +440,180 @@ public class PixelMatrix extends Region {
         }
     }
 
+    // Rasterizes the dirty pixels into the frame buffer and draws the rows of the frame that contain them.
+    // The frame buffer is laid out like the matrix array, starting at the origin of the matrix.
+    private void drawMatrixImage() {
+        final int imageWidth  = cols * cellWidth;
+        final int imageHeight = rows * cellHeight;
+        if (imageWidth <= 0 || imageHeight <= 0 || cols <= 0 || rows <= 0) { return; }
+        if (null == frame || frameWidth != imageWidth || frameHeight != imageHeight) {
+            frameWidth  = imageWidth;
+            frameHeight = imageHeight;
+            frame       = new int[frameWidth * frameHeight];
+            frameImage  = new WritableImage(frameWidth, frameHeight);
+            allDirty    = true;
+        }
+        if (allDirty) {
+            // Cell bounds might have changed, clear the gaps between the cells too
+            Arrays.fill(frame, 0);
+            Arrays.fill(dirtyPixels, true);
+            dirtyFromRow = 0;
+            dirtyToRow   = rows - 1;
+        }
+        if (dirtyToRow < dirtyFromRow) {
+            if (scrolled) { drawFrame(); }
+            return;
+        }
+
+        for (int y = dirtyFromRow ; y <= dirtyToRow ; y++) {
+            for (int x = 0 ; x < cols ; x++) {
+                int index = y * cols + x;
+                if (!dirtyPixels[index]) { continue; }
+                dirtyPixels[index] = false;
+                rasterizePixel(x, y, matrix[index]);
+            }
+        }
+
+        final int fromY = dirtyFromRow * cellHeight;
+        final int toY   = (dirtyToRow + 1) * cellHeight;
+        final int band  = toY - fromY;
+        dirtyFromRow = rows;
+        dirtyToRow   = -1;
+        allDirty     = false;
+        if (band > 0) { frameImage.getPixelWriter().setPixels(0, fromY, frameWidth, band, PIXEL_FORMAT, frame, fromY * frameWidth, frameWidth); }
+        // If the cells are smaller than the pixels of the canvas, a band of rows might not cover a whole pixel of the canvas
+        if (scrolled || canvas.getWidth() < frameWidth || canvas.getHeight() < frameHeight) {
+            drawFrame();
+        } else if (band > 0) {
+            drawFrameRows(fromY, toY);
+        }
+    }
+
+    private void drawFrame() {
+        scrolled = false;
+        ctx.clearRect(0, 0, width, height);
+        drawFrameRows(0, frameHeight);
+    }
+
+    // Copies the rows FROM_Y - TO_Y of the frame buffer to the canvas, the parts of the frame that lie before the origin are wrapped around.
+    // All cells have the same whole pixel size, so the origin is always on a cell boundary of the frame. The frame is scaled to the size
+    // of the canvas and the bands are snapped to whole pixels of the canvas, so that bands drawn at different times fit without seams.
+    private void drawFrameRows(final int FROM_Y, final int TO_Y) {
+        final int frameOriginX = originX * cellWidth;
+        final int frameOriginY = originY * cellHeight;
+        if (FROM_Y < frameOriginY && TO_Y > frameOriginY) {
+            drawFrameRows(FROM_Y, frameOriginY);
+            drawFrameRows(frameOriginY, TO_Y);
+            return;
+        }
+        final int    band         = TO_Y - FROM_Y;
+        final int    destY        = FROM_Y >= frameOriginY ? FROM_Y - frameOriginY : FROM_Y + frameHeight - frameOriginY;
+        final int    right        = frameWidth - frameOriginX;
+        final double canvasWidth  = canvas.getWidth();
+        final double canvasHeight = canvas.getHeight();
+        final double top          = toCanvas(destY, frameHeight, canvasHeight);
+        final double bottom       = toCanvas(destY + band, frameHeight, canvasHeight);
+        final double seam         = toCanvas(right, frameWidth, canvasWidth);
+        if (bottom <= top) { return; }
+        ctx.clearRect(0, top, canvasWidth, bottom - top);
+        if (right > 0) { ctx.drawImage(frameImage, frameOriginX, FROM_Y, right, band, 0, top, seam, bottom - top); }
+        if (frameOriginX > 0) { ctx.drawImage(frameImage, 0, FROM_Y, frameOriginX, band, seam, top, canvasWidth - seam, bottom - top); }
+    }
+
+    // Position of the frame pixel FRAME_POSITION on the canvas, rounded to whole pixels of the canvas
+    private double toCanvas(final int FRAME_POSITION, final int FRAME_SIZE, final double CANVAS_SIZE) {
+        return FRAME_POSITION == FRAME_SIZE ? CANVAS_SIZE : Math.round(FRAME_POSITION * CANVAS_SIZE / FRAME_SIZE);
+    }
+
+    private void rasterizePixel(final int X, final int Y, final int COLOR_VALUE) {
+        final int left   = X * cellWidth + cellSpacer;
+        final int top    = Y * cellHeight + cellSpacer;
+        final int right  = (X + 1) * cellWidth - cellSpacer;
+        final int bottom = (Y + 1) * cellHeight - cellSpacer;
+        final int w      = right - left;
+        final int h      = bottom - top;
+        if (w <= 0 || h <= 0) { return; }
+
+        if (PixelShape.SQUARE == pixelShape) {
+            for (int row = top ; row < bottom ; row++) { Arrays.fill(frame, row * frameWidth + left, row * frameWidth + right, COLOR_VALUE); }
+            return;
+        }
+        final float[] mask  = getShapeMask(w, h);
+        final int     alpha = COLOR_VALUE >>> 24;
+        final int     rgb   = COLOR_VALUE & 0x00FFFFFF;
+        for (int row = 0 ; row < h ; row++) {
+            int offset = (top + row) * frameWidth + left;
+            for (int col = 0 ; col < w ; col++) {
+                frame[offset + col] = ((int) (alpha * mask[row * w + col] + 0.5f) << 24) | rgb;
+            }
+        }
+    }
+
+    // Coverage (0 - 1) of the pixel shape for every pixel of a cell with the given size, cached until the shape or size changes
+    private float[] getShapeMask(final int WIDTH, final int HEIGHT) {
+        final long key = ((long) WIDTH << 32) | HEIGHT;
+        float[] mask = shapeMasks.get(key);
+        if (null != mask) { return mask; }
+
+        mask = new float[WIDTH * HEIGHT];
+        final double radius  = PixelShape.ROUNDED_RECT == pixelShape ? Math.min(pixelSize * 0.125, Math.min(WIDTH, HEIGHT) * 0.5) : 0;
+        final double centerX = WIDTH * 0.5;
+        final double centerY = HEIGHT * 0.5;
+        final double step    = 1.0 / MASK_SAMPLES;
+        for (int y = 0 ; y < HEIGHT ; y++) {
+            for (int x = 0 ; x < WIDTH ; x++) {
+                int inside = 0;
+                for (int sy = 0 ; sy < MASK_SAMPLES ; sy++) {
+                    double py = y + (sy + 0.5) * step;
+                    for (int sx = 0 ; sx < MASK_SAMPLES ; sx++) {
+                        double px = x + (sx + 0.5) * step;
+                        if (PixelShape.ROUND == pixelShape) {
+                            double dx = (px - centerX) / centerX;
+                            double dy = (py - centerY) / centerY;
+                            if (dx * dx + dy * dy <= 1) { inside++; }
+                        } else {
+                            // Distance to the rectangle that is shrunk by the corner radius
+                            double dx = Math.max(0, Math.abs(px - centerX) - (centerX - radius));
+                            double dy = Math.max(0, Math.abs(py - centerY) - (centerY - radius));
+                            if (dx * dx + dy * dy <= radius * radius) { inside++; }
+                        }
+                    }
+                }
+                mask[y * WIDTH + x] = (float) inside / (MASK_SAMPLES * MASK_SAMPLES);
+            }
+        }
+        shapeMasks.put(key, mask);
+        return mask;
+    }
+
+    // Index of the logical pixel X, Y in the matrix array
+    private int index(final int X, final int Y) {
+        int x = X + originX;
+        int y = Y + originY;
+        if (x >= cols) { x -= cols; }
+        if (y >= rows) { y -= rows; }
+        return y * cols + x;
+    }
+
+    private void scroll() {
+        scrolled = true;
+        if (Renderer.IMAGE != renderer) { markAllDirty(); }
+        drawMatrix();
+    }
+
+    private void markAllDirty() {
+        allDirty     = true;
+        dirtyFromRow = 0;
+        dirtyToRow   = rows - 1;
+    }
+
+    private void clearDirty() {
+        Arrays.fill(dirtyPixels, false);
+        dirtyFromRow = rows;
+        dirtyToRow   = -1;
+        allDirty     = false;
+    }
+
     public void setOnPixelMatrixEvent(final PixelMatrixEventListener LISTENER) { addPixelMatrixEventListener(LISTENER); }
     public void addPixelMatrixEventListener(final PixelMatrixEventListener LISTENER) { if (!listeners.contains(LISTENER)) listeners.add(LISTENER); }
     public void removePixelMatrixEventListener(final PixelMatrixEventListener LISTENER) { if (listeners.contains(LISTENER)) listeners.remove(LISTENER); }
@@ -369,6 +639,20 @@ public class PixelMatrix extends Region {
     private long getAlpha(final long COLOR_VALUE) { return (COLOR_VALUE & ALPHA_MASK) >>> 24; }
 
     public void checkForClick(final MouseEvent EVT) {
+        if (Renderer.IMAGE == renderer) {
+            if (cellWidth <= 0 || cellHeight <= 0 || pixelWidth <= 0 || pixelHeight <= 0 || EVT.getX() < 0 || EVT.getY() < 0) { return; }
+            // The frame is scaled to the canvas, the spacer is given in pixels of the frame
+            final double cellX   = EVT.getX() / pixelWidth;
+            final double cellY   = EVT.getY() / pixelHeight;
+            final int    x       = (int) cellX;
+            final int    y       = (int) cellY;
+            final double offsetX = (cellX - x) * cellWidth;
+            final double offsetY = (cellY - y) * cellHeight;
+            if (x < cols && y < rows && offsetX >= cellSpacer && offsetX < cellWidth - cellSpacer && offsetY >= cellSpacer && offsetY < cellHeight - cellSpacer) {
+                firePixelMatrixEvent(new PixelMatrixEvent(x, y, EVT.getScreenX(), EVT.getScreenY()));
+            }
+            return;
+        }
         double spacerPlusPixelWidthMinusDoubleSpacer  = spacer + pixelWidthMinusDoubleSpacer;
         double spacerPlusPixelHeightMinusDoubleSpacer = spacer + pixelHeightMinusDoubleSpacer;
         for (int y = 0; y < rows; y++) {
@@ -393,7 +677,8 @@ public class PixelMatrix extends Region {
         pixelSizeMinusDoubleSpacer   = pixelSize - spacer * 2;
         pixelWidthMinusDoubleSpacer  = pixelWidth - spacer * 2;
         pixelHeightMinusDoubleSpacer = pixelHeight - spacer * 2;
-
+        shapeMasks.clear();
+        markAllDirty();
 
         if (width > 0 && height > 0) {
             if (squarePixels) {
@@ -402,6 +687,9 @@ public class PixelMatrix extends Region {
                 pixelWidthMinusDoubleSpacer  = pixelSizeMinusDoubleSpacer;
                 pixelHeightMinusDoubleSpacer = pixelSizeMinusDoubleSpacer;
             }
+            cellWidth  = Math.max(1, (int) Math.floor(pixelWidth));
+            cellHeight = Math.max(1, (int) Math.floor(pixelHeight));
+            cellSpacer = (int) Math.round(spacer);
             canvas.setWidth(cols * pixelWidth);
             canvas.setHeight(rows * pixelHeight);
 
@@ -17,6 +17,7 @@
 package eu.hansolo.fx.charts;
 
 import eu.hansolo.fx.charts.PixelMatrix.PixelShape;
+import eu.hansolo.fx.charts.PixelMatrix.Renderer;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.IntegerProperty;
@@ -67,6 +68,11 @@ public class PixelMatrixBuilder<B extends PixelMatrixBuilder<B>> {
         return (B)this;
     }
 
+    public final B renderer(final Renderer RENDERER) {
+        properties.put("renderer", new SimpleObjectProperty(RENDERER));
+        return (B)this;
+    }
+
     public final B useSpacer(final boolean USE) {
         properties.put("useSpacer", new SimpleBooleanProperty(USE));
         return (B)this;
@@ -206,6 +212,8 @@ public class PixelMatrixBuilder<B extends PixelMatrixBuilder<B>> {
                 CONTROL.setPixelOffColor(((ObjectProperty<Color>) properties.get(key)).get());
             } else if ("pixelShape".equals(key)) {
                 CONTROL.setPixelShape(((ObjectProperty<PixelShape>) properties.get(key)).get());
+            } else if ("renderer".equals(key)) {
+                CONTROL.setRenderer(((ObjectProperty<Renderer>) properties.get(key)).get());
             } else if ("useSpacer".equals(key)) {
                 CONTROL.setUseSpacer(((BooleanProperty) properties.get(key)).get());
             } else if ("spacerSizeFactor".equals(key)) {
@@ -21,6 +21,7 @@ import eu.hansolo.fx.charts.data.ChartItem;
 import eu.hansolo.fx.charts.event.EventType;
 import eu.hansolo.fx.charts.event.TreeNodeEvent;
 import eu.hansolo.fx.charts.font.Fonts;
+import eu.hansolo.fx.charts.tools.ChartMetrics;
 import eu.hansolo.fx.charts.tools.Helper;
 import eu.hansolo.fx.charts.data.TreeNode;
 import javafx.beans.DefaultProperty;
@@ -134,6 +135,7 @@ public class SunburstChart<T extends ChartItem> extends Region {
     private              int                             maxLevel;
     private              Map<Integer, List<TreeNode<T>>> levelMap;
     private              InvalidationListener            sizeListener;
+    private              ChartMetrics                    metrics;
 
 
 
@@ -161,6 +163,7 @@ public class SunburstChart<T extends ChartItem> extends Region {
         tree                   = TREE;
         levelMap               = new HashMap<>(8);
         sizeListener           = o -> resize();
+        metrics                = ChartMetrics.register(this);
         initGraphics();
         registerListeners();
     }
@@ -578,6 +581,8 @@ public class SunburstChart<T extends ChartItem> extends Region {
         drawChart();
     }
 
+    public ChartMetrics getMetrics() { return metrics; }
+
     private void adjustTextColors() {
         Color brightColor = getBrightTextColor();
         Color darkColor   = getDarkTextColor();
@@ -608,6 +613,15 @@ public class SunburstChart<T extends ChartItem> extends Region {
     }
 
     private void drawChart() {
+        metrics.startRedraw();
+        try {
+            drawSegments();
+        } finally {
+            metrics.endRedraw();
+        }
+    }
+
+    private void drawSegments() {
         levelMap.clear();
         for (int i = 0 ; i <= maxLevel ; i++) { levelMap.put(i, new ArrayList<>()); }
         root.stream().forEach(node -> levelMap.get(node.getDepth()).add(node));
@@ -651,7 +665,10 @@ public class SunburstChart<T extends ChartItem> extends Region {
                 segmentEndAngle  -= segmentAngle;
 
                 // Only draw if segment fill color is not TRANSPARENT
-                if (!Color.TRANSPARENT.equals(segmentData.getFill())) {
+                if (Color.TRANSPARENT.equals(segmentData.getFill())) {
+                    metrics.addItemsSkipped(1);
+                } else {
+                    metrics.addItemsDrawn(1);
                     double value = segmentData.getValue();
 
                     if (isInteractive) {
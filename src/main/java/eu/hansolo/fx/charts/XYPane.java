@@ -20,6 +20,8 @@ import eu.hansolo.fx.charts.data.XYItem;
 import eu.hansolo.fx.charts.font.Fonts;
 import eu.hansolo.fx.charts.series.Series;
 import eu.hansolo.fx.charts.series.XYSeries;
+import eu.hansolo.fx.charts.tools.ChartMetrics;
+import eu.hansolo.fx.charts.tools.CoordinateTransform;
 import eu.hansolo.fx.charts.tools.Helper;
 import eu.hansolo.fx.charts.tools.Point;
 import javafx.beans.property.BooleanProperty;
@@ -81,6 +83,8 @@ public class XYPane<T extends XYItem> extends Region implements ChartArea {
     private              GraphicsContext                ctx;
     private              double                         scaleX;
     private              double                         scaleY;
+    private              CoordinateTransform            transform;
+    private              double[]                       pixelBuffer;
     private              double                         symbolSize;
     private              int                            noOfBands;
     private              double                         _lowerBoundX;
@@ -101,6 +105,7 @@ public class XYPane<T extends XYItem> extends Region implements ChartArea {
     private              ObjectProperty<Color>          thresholdYColor;
     private              PolarTickStep                  _polarTickStep;
     private              ObjectProperty<PolarTickStep>  polarTickStep;
+    private              ChartMetrics                   metrics;
 
 
     // ******************** Constructors **************************************
@@ -118,6 +123,8 @@ public class XYPane<T extends XYItem> extends Region implements ChartArea {
         listOfSeries       = FXCollections.observableArrayList(SERIES);
         scaleX             = 1;
         scaleY             = 1;
+        transform          = new CoordinateTransform();
+        pixelBuffer        = new double[0];
         symbolSize         = 2;
         noOfBands          = clamp(1, 5, BANDS);
         _lowerBoundX       = 0;
@@ -130,6 +137,7 @@ public class XYPane<T extends XYItem> extends Region implements ChartArea {
         _thresholdYColor   = Color.RED;
         _polarTickStep     = PolarTickStep.FOURTY_FIVE;
 
+        metrics            = ChartMetrics.register(this);
         initGraphics();
         registerListeners();
     }
@@ -396,6 +404,8 @@ public class XYPane<T extends XYItem> extends Region implements ChartArea {
         return false;
     }
 
+    public ChartMetrics getMetrics() { return metrics; }
+
 
     // ******************** Draw Chart ****************************************
     protected void redraw() {
@@ -404,7 +414,15 @@ public class XYPane<T extends XYItem> extends Region implements ChartArea {
 
     private void drawChart() {
         if (null == listOfSeries || listOfSeries.isEmpty()) return;
+        metrics.startRedraw();
+        try {
+            drawSeries();
+        } finally {
+            metrics.endRedraw();
+        }
+    }
 
+    private void drawSeries() {
         ctx.clearRect(0, 0, width, height);
         ctx.setFill(getChartBackground());
         ctx.fillRect(0, 0, width, height);
@@ -419,6 +437,7 @@ public class XYPane<T extends XYItem> extends Region implements ChartArea {
                 count++;
             }
             if (deltaChart && chartTypes[0] == chartTypes[1]) {
+                metrics.addItemsDrawn(listOfSeries.get(0).getItems().size() + listOfSeries.get(1).getItems().size());
                 switch(chartTypes[0]) {
                     case LINE_DELTA       : drawLineDelta(listOfSeries.get(0), listOfSeries.get(1)); return;
                     case SMOOTH_LINE_DELTA: drawSmoothLineDelta(listOfSeries.get(0), listOfSeries.get(1)); return;
@@ -440,24 +459,25 @@ public class XYPane<T extends XYItem> extends Region implements ChartArea {
                 case SMOOTHED_HORIZON : drawHorizon(series, true); break;
                 case POLAR            :
                 case SMOOTH_POLAR     : drawPolar(series); break;
+                default               : metrics.addItemsSkipped(series.getItems().size()); continue;
             }
-        };
+            metrics.addItemsDrawn(series.getItems().size());
+        }
     }
 
     private void drawLine(final XYSeries<T> SERIES, final boolean SHOW_POINTS) {
-        final double LOWER_BOUND_X = getLowerBoundX();
-        final double LOWER_BOUND_Y = getLowerBoundY() - SERIES.getStrokeWidth();
-        List<T> items = SERIES.getItems();
-        double  oldX  = (items.get(0).getX() - LOWER_BOUND_X) * scaleX;
-        double  oldY  = height - (items.get(0).getY() - LOWER_BOUND_Y) * scaleY;
+        final int      NO_OF_ITEMS = SERIES.getItems().size();
+        final double[] PIXELS      = toPixels(SERIES);
+        double         oldX        = PIXELS[0];
+        double         oldY        = PIXELS[1];
 
         ctx.setLineWidth(SERIES.getStrokeWidth() > -1 ? SERIES.getStrokeWidth() : size * 0.0025);
         ctx.setStroke(SERIES.getStroke());
         ctx.setFill(Color.TRANSPARENT);
 
-        for (T item : SERIES.getItems()) {
-            double x = (item.getX() - LOWER_BOUND_X) * scaleX;
-            double y = height - (item.getY() - LOWER_BOUND_Y) * scaleY;
+        for (int i = 0 ; i < NO_OF_ITEMS ; i++) {
+            double x = PIXELS[2 * i];
+            double y = PIXELS[2 * i + 1];
             ctx.strokeLine(oldX, oldY, x, y);
             oldX = x;
             oldY = y;
@@ -467,12 +487,10 @@ public class XYPane<T extends XYItem> extends Region implements ChartArea {
     }
 
     private void drawArea(final XYSeries<T> SERIES, final boolean SHOW_POINTS) {
-        final double LOWER_BOUND_X = getLowerBoundX();
-        final double LOWER_BOUND_Y = getLowerBoundY() - SERIES.getStrokeWidth();
-        List<T> items     = SERIES.getItems();
-        int     noOfItems = items.size();
-        double  oldX      = (items.get(0).getX() - LOWER_BOUND_X) * scaleX;
-        double  oldY      = height - (items.get(0).getY() - LOWER_BOUND_Y) * scaleY;
+        final int      NO_OF_ITEMS = SERIES.getItems().size();
+        final double[] PIXELS      = toPixels(SERIES);
+        double         oldX        = PIXELS[0];
+        double         oldY        = PIXELS[1];
 
         // Fill Area
         ctx.setLineWidth(SERIES.getStrokeWidth() > -1 ? SERIES.getStrokeWidth() : size * 0.0025);
@@ -481,24 +499,23 @@ public class XYPane<T extends XYItem> extends Region implements ChartArea {
         ctx.beginPath();
         ctx.moveTo(oldX, oldY);
 
-        for (int i = 1 ; i < noOfItems ; i++) {
-            T item = items.get(i);
-            double x = (item.getX() - LOWER_BOUND_X) * scaleX;
-            double y = height - (item.getY() - LOWER_BOUND_Y) * scaleY;
+        for (int i = 1 ; i < NO_OF_ITEMS ; i++) {
+            double x = PIXELS[2 * i];
+            double y = PIXELS[2 * i + 1];
             ctx.lineTo(x, y);
             oldX = x;
         }
         ctx.lineTo(oldX, height);
-        ctx.lineTo((items.get(0).getX() - LOWER_BOUND_X) * scaleX, height);
+        ctx.lineTo(PIXELS[0], height);
         ctx.closePath();
         ctx.fill();
 
         // Draw Line
-        oldX = (items.get(0).getX() - LOWER_BOUND_X) * scaleX;
-        oldY = height - (items.get(0).getY() - LOWER_BOUND_Y) * scaleY;
-        for (T item : SERIES.getItems()) {
-            double x = (item.getX() - LOWER_BOUND_X) * scaleX;
-            double y = height - (item.getY() - LOWER_BOUND_Y) * scaleY;
+        oldX = PIXELS[0];
+        oldY = PIXELS[1];
+        for (int i = 0 ; i < NO_OF_ITEMS ; i++) {
+            double x = PIXELS[2 * i];
+            double y = PIXELS[2 * i + 1];
             ctx.strokeLine(oldX, oldY, x, y);
             oldX = x;
             oldY = y;
@@ -508,8 +525,9 @@ public class XYPane<T extends XYItem> extends Region implements ChartArea {
     }
 
     private void drawScatter(final XYSeries<T> SERIES) {
-        final double LOWER_BOUND_X = getLowerBoundX();
-        final double LOWER_BOUND_Y = getLowerBoundY() - SERIES.getStrokeWidth();
+        final List<T>  ITEMS       = SERIES.getItems();
+        final int      NO_OF_ITEMS = ITEMS.size();
+        final double[] PIXELS      = toPixels(SERIES);
         ctx.setStroke(Color.TRANSPARENT);
         ctx.setFill(Color.TRANSPARENT);
 
@@ -518,9 +536,10 @@ public class XYPane<T extends XYItem> extends Region implements ChartArea {
         Paint  symbolStroke = SERIES.getSymbolStroke();
         double size         = SERIES.getSymbolSize() > -1 ? SERIES.getSymbolSize() : symbolSize;
 
-        for (T item : SERIES.getItems()) {
-            double x = (item.getX() - LOWER_BOUND_X) * scaleX;
-            double y = height - (item.getY() - LOWER_BOUND_Y) * scaleY;
+        for (int i = 0 ; i < NO_OF_ITEMS ; i++) {
+            T      item = ITEMS.get(i);
+            double x    = PIXELS[2 * i];
+            double y    = PIXELS[2 * i + 1];
 
             Symbol itemSymbol = item.getSymbol();
             if (Symbol.NONE == itemSymbol) {
@@ -532,9 +551,6 @@ public class XYPane<T extends XYItem> extends Region implements ChartArea {
     }
 
     private void drawSmoothLine(final XYSeries<T> SERIES, final boolean SHOW_POINTS) {
-        final double LOWER_BOUND_X = getLowerBoundX();
-        final double LOWER_BOUND_Y = getLowerBoundY() - SERIES.getStrokeWidth();
-
         ctx.setLineWidth(SERIES.getStrokeWidth() > -1 ? SERIES.getStrokeWidth() : size * 0.0025);
         ctx.setStroke(SERIES.getStroke());
         ctx.setFill(Color.TRANSPARENT);
@@ -542,11 +558,12 @@ public class XYPane<T extends XYItem> extends Region implements ChartArea {
         List<Point> points = new ArrayList<>(SERIES.getItems().size());
         SERIES.getItems().forEach(item -> points.add(new Point(item.getX(), item.getY())));
 
-        Point[] interpolatedPoints = Helper.subdividePoints(points.toArray(new Point[0]), SUB_DIVISIONS);
+        Point[]  interpolatedPoints = Helper.subdividePoints(points.toArray(new Point[0]), SUB_DIVISIONS);
+        double[] pixels             = toPixels(SERIES, interpolatedPoints);
 
         ctx.beginPath();
-        for(Point p : interpolatedPoints) {
-            ctx.lineTo((p.getX() - LOWER_BOUND_X) * scaleX, height - (p.getY() - LOWER_BOUND_Y) * scaleY);
+        for (int i = 0 ; i < interpolatedPoints.length ; i++) {
+            ctx.lineTo(pixels[2 * i], pixels[2 * i + 1]);
         }
         ctx.stroke();
 
@@ -554,11 +571,7 @@ public class XYPane<T extends XYItem> extends Region implements ChartArea {
     }
 
     private void drawSmoothArea(final XYSeries<T> SERIES, final boolean SHOW_POINTS) {
-        final double LOWER_BOUND_X = getLowerBoundX();
-        final double LOWER_BOUND_Y = getLowerBoundY() - SERIES.getStrokeWidth();
         List<T> items     = SERIES.getItems();
-        double  oldX      = (items.get(0).getX() - LOWER_BOUND_X) * scaleX;
-        double  oldY      = height - (items.get(0).getY() - LOWER_BOUND_Y) * scaleY;
 
         ctx.setLineWidth(SERIES.getStrokeWidth() > -1 ? SERIES.getStrokeWidth() : size * 0.0025);
         ctx.setStroke(SERIES.getStroke());
@@ -567,24 +580,29 @@ public class XYPane<T extends XYItem> extends Region implements ChartArea {
         List<Point> points = new ArrayList<>(items.size());
         items.forEach(item -> points.add(new Point(item.getX(), item.getY())));
 
-        Point[] interpolatedPoints = Helper.subdividePoints(points.toArray(new Point[0]), SUB_DIVISIONS);
+        updateTransform(SERIES);
+        double   firstX             = transform.toPixelX(items.get(0).getX());
+        double   oldX               = firstX;
+        double   oldY               = transform.toPixelY(items.get(0).getY());
+        Point[]  interpolatedPoints = Helper.subdividePoints(points.toArray(new Point[0]), SUB_DIVISIONS);
+        double[] pixels             = toPixels(SERIES, interpolatedPoints);
 
         ctx.beginPath();
         ctx.moveTo(oldX, oldY);
-        for(Point p : interpolatedPoints) {
-            double x = (p.getX() - LOWER_BOUND_X) * scaleX;
-            ctx.lineTo(x, height - (p.getY() - LOWER_BOUND_Y) * scaleY);
+        for (int i = 0 ; i < interpolatedPoints.length ; i++) {
+            double x = pixels[2 * i];
+            ctx.lineTo(x, pixels[2 * i + 1]);
             oldX = x;
         }
 
         ctx.lineTo(oldX, height);
-        ctx.lineTo((items.get(0).getX() - LOWER_BOUND_X) * scaleX, height);
+        ctx.lineTo(firstX, height);
         ctx.closePath();
         ctx.fill();
 
         ctx.beginPath();
-        for(Point p : interpolatedPoints) {
-            ctx.lineTo((p.getX() - LOWER_BOUND_X) * scaleX, height - (p.getY() - LOWER_BOUND_Y) * scaleY);
+        for (int i = 0 ; i < interpolatedPoints.length ; i++) {
+            ctx.lineTo(pixels[2 * i], pixels[2 * i + 1]);
         }
         ctx.stroke();
 
@@ -657,11 +675,7 @@ public class XYPane<T extends XYItem> extends Region implements ChartArea {
     }
 
     private void drawRidgeLine(final XYSeries<T> SERIES) {
-        final double LOWER_BOUND_X = getLowerBoundX();
-        final double LOWER_BOUND_Y = getLowerBoundY() - SERIES.getStrokeWidth();
         List<T> items     = SERIES.getItems();
-        double  oldX      = (items.get(0).getX() - LOWER_BOUND_X) * scaleX;
-        double  oldY      = height - (items.get(0).getY() - LOWER_BOUND_Y) * scaleY;
 
         ctx.setLineWidth(SERIES.getStrokeWidth() > -1 ? SERIES.getStrokeWidth() : size * 0.0025);
         ctx.setStroke(SERIES.getStroke());
@@ -670,24 +684,29 @@ public class XYPane<T extends XYItem> extends Region implements ChartArea {
         List<Point> points = new ArrayList<>(items.size());
         items.forEach(item -> points.add(new Point(item.getX(), item.getY())));
 
-        Point[] interpolatedPoints = Helper.subdividePoints(points.toArray(new Point[0]), SUB_DIVISIONS);
+        updateTransform(SERIES);
+        double   firstX             = transform.toPixelX(items.get(0).getX());
+        double   oldX               = firstX;
+        double   oldY               = transform.toPixelY(items.get(0).getY());
+        Point[]  interpolatedPoints = Helper.subdividePoints(points.toArray(new Point[0]), SUB_DIVISIONS);
+        double[] pixels             = toPixels(SERIES, interpolatedPoints);
 
         ctx.beginPath();
         ctx.moveTo(oldX, oldY);
-        for(Point p : interpolatedPoints) {
-            double x = (p.getX() - LOWER_BOUND_X) * scaleX;
-            ctx.lineTo(x, height - (p.getY() - LOWER_BOUND_Y) * scaleY);
+        for (int i = 0 ; i < interpolatedPoints.length ; i++) {
+            double x = pixels[2 * i];
+            ctx.lineTo(x, pixels[2 * i + 1]);
             oldX = x;
         }
 
         ctx.lineTo(oldX, height);
-        ctx.lineTo((items.get(0).getX() - LOWER_BOUND_X) * scaleX, height);
+        ctx.lineTo(firstX, height);
         ctx.closePath();
         ctx.fill();
 
         ctx.beginPath();
-        for(Point p : interpolatedPoints) {
-            ctx.lineTo((p.getX() - LOWER_BOUND_X) * scaleX, height - (p.getY() - LOWER_BOUND_Y) * scaleY);
+        for (int i = 0 ; i < interpolatedPoints.length ; i++) {
+            ctx.lineTo(pixels[2 * i], pixels[2 * i + 1]);
         }
         ctx.stroke();
     }
@@ -1191,16 +1210,55 @@ public class XYPane<T extends XYItem> extends Region implements ChartArea {
         return mapOfBands;
     }
 
+    private void updateTransform(final XYSeries<T> SERIES) {
+        final double STROKE_WIDTH = SERIES.getStrokeWidth();
+        transform.setX(AxisType.LINEAR, getLowerBoundX(), getUpperBoundX(), width);
+        transform.setY(AxisType.LINEAR, getLowerBoundY() - STROKE_WIDTH, getUpperBoundY() - STROKE_WIDTH, height);
+    }
+
+    // Returns the pixel coordinates of the series items as (x0, y0, x1, y1, ...)
+    private double[] toPixels(final XYSeries<T> SERIES) {
+        final List<T>  ITEMS       = SERIES.getItems();
+        final int      NO_OF_ITEMS = ITEMS.size();
+        final double[] BUFFER      = getPixelBuffer(NO_OF_ITEMS);
+        for (int i = 0 ; i < NO_OF_ITEMS ; i++) {
+            T item = ITEMS.get(i);
+            BUFFER[2 * i]     = item.getX();
+            BUFFER[2 * i + 1] = item.getY();
+        }
+        updateTransform(SERIES);
+        transform.transform(BUFFER, BUFFER, 0, NO_OF_ITEMS);
+        return BUFFER;
+    }
+    private double[] toPixels(final XYSeries<T> SERIES, final Point[] POINTS) {
+        final int      NO_OF_POINTS = POINTS.length;
+        final double[] BUFFER       = getPixelBuffer(NO_OF_POINTS);
+        for (int i = 0 ; i < NO_OF_POINTS ; i++) {
+            BUFFER[2 * i]     = POINTS[i].getX();
+            BUFFER[2 * i + 1] = POINTS[i].getY();
+        }
+        updateTransform(SERIES);
+        transform.transform(BUFFER, BUFFER, 0, NO_OF_POINTS);
+        return BUFFER;
+    }
+
+    private double[] getPixelBuffer(final int NO_OF_POINTS) {
+        if (pixelBuffer.length < 2 * NO_OF_POINTS) { pixelBuffer = new double[2 * NO_OF_POINTS]; }
+        return pixelBuffer;
+    }
+
     private void drawSymbols(final XYSeries<T> SERIES) {
-        final double LOWER_BOUND_X = getLowerBoundX();
-        final double LOWER_BOUND_Y = getLowerBoundY() - SERIES.getStrokeWidth();
-        Symbol       seriesSymbol  = SERIES.getSymbol();
-        Color        symbolFill    = SERIES.getSymbolFill();
-        Color        symbolStroke  = SERIES.getSymbolStroke();
-        double       size          = SERIES.getSymbolSize() > -1 ? SERIES.getSymbolSize() : symbolSize;
-        for (T item : SERIES.getItems()) {
-            double x          = (item.getX() - LOWER_BOUND_X) * scaleX;
-            double y          = height - (item.getY() - LOWER_BOUND_Y) * scaleY;
+        final List<T>  ITEMS        = SERIES.getItems();
+        final int      NO_OF_ITEMS  = ITEMS.size();
+        final double[] PIXELS       = toPixels(SERIES);
+        Symbol         seriesSymbol = SERIES.getSymbol();
+        Color          symbolFill   = SERIES.getSymbolFill();
+        Color          symbolStroke = SERIES.getSymbolStroke();
+        double         size         = SERIES.getSymbolSize() > -1 ? SERIES.getSymbolSize() : symbolSize;
+        for (int i = 0 ; i < NO_OF_ITEMS ; i++) {
+            T      item       = ITEMS.get(i);
+            double x          = PIXELS[2 * i];
+            double y          = PIXELS[2 * i + 1];
             Symbol itemSymbol = item.getSymbol();
             if (Symbol.NONE == itemSymbol) {
                 drawSymbol(x, y, symbolFill, symbolStroke, seriesSymbol, size);
@@ -18,6 +18,8 @@ package eu.hansolo.fx.charts;
 
 import eu.hansolo.fx.charts.data.XYZItem;
 import eu.hansolo.fx.charts.series.XYZSeries;
+import eu.hansolo.fx.charts.tools.ChartMetrics;
+import eu.hansolo.fx.charts.tools.CoordinateTransform;
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.DoublePropertyBase;
 import javafx.beans.property.ObjectProperty;
@@ -55,6 +57,7 @@ public class XYZPane<T extends XYZItem> extends Region implements ChartArea {
     private              GraphicsContext       ctx;
     private              double                scaleX;
     private              double                scaleY;
+    private              CoordinateTransform   transform;
     private              double                scaleZ;
     private              double                _lowerBoundX;
     private              DoubleProperty        lowerBoundX;
@@ -68,6 +71,7 @@ public class XYZPane<T extends XYZItem> extends Region implements ChartArea {
     private              DoubleProperty        lowerBoundZ;
     private              double                _upperBoundZ;
     private              DoubleProperty        upperBoundZ;
+    private              ChartMetrics          metrics;
 
 
     // ******************** Constructors **************************************
@@ -82,6 +86,7 @@ public class XYZPane<T extends XYZItem> extends Region implements ChartArea {
         listOfSeries     = FXCollections.observableArrayList(SERIES);
         scaleX           = 1;
         scaleY           = 1;
+        transform        = new CoordinateTransform();
         scaleZ           = 1;
         _lowerBoundX     = 0;
         _upperBoundX     = 100;
@@ -90,6 +95,7 @@ public class XYZPane<T extends XYZItem> extends Region implements ChartArea {
         _lowerBoundZ     = 0;
         _upperBoundZ     = 100;
 
+        metrics          = ChartMetrics.register(this);
         initGraphics();
         registerListeners();
     }
@@ -294,11 +300,21 @@ public class XYZPane<T extends XYZItem> extends Region implements ChartArea {
 
     public List<XYZSeries<T>> getListOfSeries() { return listOfSeries; }
 
+    public ChartMetrics getMetrics() { return metrics; }
+
 
     // ******************** Draw Chart ****************************************
     private void drawChart() {
         if (null == listOfSeries || listOfSeries.isEmpty()) return;
+        metrics.startRedraw();
+        try {
+            drawSeries();
+        } finally {
+            metrics.endRedraw();
+        }
+    }
 
+    private void drawSeries() {
         ctx.clearRect(0, 0, width, height);
         ctx.setFill(getChartBackground());
         ctx.fillRect(0, 0, width, height);
@@ -306,7 +322,8 @@ public class XYZPane<T extends XYZItem> extends Region implements ChartArea {
         listOfSeries.forEach(series -> {
             final ChartType TYPE = series.getChartType();
             switch(TYPE) {
-                case BUBBLE: drawBubble(series); break;
+                case BUBBLE: drawBubble(series); metrics.addItemsDrawn(series.getItems().size()); break;
+                default    : metrics.addItemsSkipped(series.getItems().size()); break;
             }
         });
     }
@@ -315,12 +332,14 @@ public class XYZPane<T extends XYZItem> extends Region implements ChartArea {
         final double LOWER_BOUND_X = getLowerBoundX();
         final double LOWER_BOUND_Y = getLowerBoundY();
         final double LOWER_BOUND_Z = getLowerBoundZ();
+        transform.setX(AxisType.LINEAR, LOWER_BOUND_X, LOWER_BOUND_X + width / scaleX, width);
+        transform.setY(AxisType.LINEAR, LOWER_BOUND_Y, LOWER_BOUND_Y + height / scaleY, height);
 
         Paint  seriesFill   = SERIES.getFill();
         Paint  seriesStroke = SERIES.getStroke();
         for (T item : SERIES.getItems()) {
-            double x        = (item.getX() - LOWER_BOUND_X) * scaleX;
-            double y        = height - (item.getY() - LOWER_BOUND_Y) * scaleY;
+            double x        = transform.toPixelX(item.getX());
+            double y        = transform.toPixelY(item.getY());
             double diameter = (item.getZ() - LOWER_BOUND_Z) * scaleZ;
             double radius   = diameter * 0.5;
 
@@ -19,6 +19,7 @@ package eu.hansolo.fx.charts;
 import eu.hansolo.fx.charts.data.YItem;
 import eu.hansolo.fx.charts.font.Fonts;
 import eu.hansolo.fx.charts.series.YSeries;
+import eu.hansolo.fx.charts.tools.ChartMetrics;
 import eu.hansolo.fx.charts.tools.Helper;
 import eu.hansolo.fx.charts.tools.Point;
 import javafx.beans.property.BooleanProperty;
@@ -80,6 +81,7 @@ public class YPane<T extends YItem> extends Region implements ChartArea {
     private              double                   _upperBoundY;
     private              DoubleProperty           upperBoundY;
     private              ObservableList<Category> categories;
+    private              ChartMetrics             metrics;
 
 
     // ******************** Constructors **************************************
@@ -105,6 +107,7 @@ public class YPane<T extends YItem> extends Region implements ChartArea {
         _upperBoundY       = 100;
         categories         = FXCollections.observableArrayList(CATEGORIES);
         valid              = isChartTypeValid();
+        metrics            = ChartMetrics.register(this);
         initGraphics();
         registerListeners();
     }
@@ -303,11 +306,21 @@ public class YPane<T extends YItem> extends Region implements ChartArea {
         return false;
     }
 
+    public ChartMetrics getMetrics() { return metrics; }
+
 
     // ******************** Draw Chart ****************************************
     private void drawChart() {
         if (null == listOfSeries || listOfSeries.isEmpty()) return;
+        metrics.startRedraw();
+        try {
+            drawSeries();
+        } finally {
+            metrics.endRedraw();
+        }
+    }
 
+    private void drawSeries() {
         ctx.clearRect(0, 0, width, height);
         ctx.setFill(getChartBackground());
         ctx.fillRect(0, 0, width, height);
@@ -322,7 +335,9 @@ public class YPane<T extends YItem> extends Region implements ChartArea {
                 case RADAR_POLYGON       :
                 case SMOOTH_RADAR_POLYGON:
                 case RADAR_SECTOR        : drawRadar(series); break;
+                default                  : metrics.addItemsSkipped(series.getItems().size()); continue;
             }
+            metrics.addItemsDrawn(series.getItems().size());
         }
     }
 
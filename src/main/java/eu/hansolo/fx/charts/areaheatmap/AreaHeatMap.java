@@ -17,8 +17,14 @@
 package eu.hansolo.fx.charts.areaheatmap;
 
 import eu.hansolo.fx.charts.data.DataPoint;
+import eu.hansolo.fx.charts.tools.ChartMetrics;
 import eu.hansolo.fx.charts.tools.ColorMapping;
+import eu.hansolo.fx.charts.tools.DelaunayTriangulation;
 import eu.hansolo.fx.charts.tools.Helper;
+import eu.hansolo.fx.charts.tools.KdTree;
+import eu.hansolo.fx.charts.tools.RowBands;
+import eu.hansolo.fx.charts.tools.ScanlineMask;
+import javafx.application.Platform;
 import javafx.beans.DefaultProperty;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.BooleanPropertyBase;
@@ -33,6 +39,8 @@ import javafx.geometry.VPos;
 import javafx.scene.Node;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
 import javafx.scene.layout.Region;
 import javafx.scene.paint.Color;
 import javafx.scene.paint.CycleMethod;
@@ -41,10 +49,14 @@ import javafx.scene.paint.Stop;
 import javafx.scene.text.Font;
 import javafx.scene.text.TextAlignment;
 
+import java.nio.IntBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
 
 
 @DefaultProperty("children")
@@ -64,12 +76,22 @@ public class AreaHeatMap extends Region {
 
         public int getFactor() { return FACTOR; }
     }
-    private static final double                       PREFERRED_WIDTH  = 250;
-    private static final double                       PREFERRED_HEIGHT = 250;
-    private static final double                       MINIMUM_WIDTH    = 50;
-    private static final double                       MINIMUM_HEIGHT   = 50;
-    private static final double                       MAXIMUM_WIDTH    = 1024;
-    private static final double                       MAXIMUM_HEIGHT   = 1024;
+    public enum Renderer { OVALS, PIXEL_BUFFER }
+    public enum Interpolation { INVERSE_DISTANCE, DELAUNAY }
+    private static final double                       PREFERRED_WIDTH     = 250;
+    private static final double                       PREFERRED_HEIGHT    = 250;
+    private static final double                       MINIMUM_WIDTH       = 50;
+    private static final double                       MINIMUM_HEIGHT      = 50;
+    private static final double                       MAXIMUM_WIDTH       = 1024;
+    private static final double                       MAXIMUM_HEIGHT      = 1024;
+    private static final PixelFormat<IntBuffer>       PIXEL_FORMAT        = PixelFormat.getIntArgbInstance();
+    private static final int                          LUT_SIZE            = 256;
+    private static final int                          COARSEST_RESOLUTION = 32;
+    private static final ExecutorService              REFINEMENT_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "AreaHeatMap refinement");
+        thread.setDaemon(true);
+        return thread;
+    });
     private              double                       size;
     private              double                       width;
     private              double                       height;
@@ -77,6 +99,10 @@ public class AreaHeatMap extends Region {
     private              GraphicsContext              ctx;
     private              List<DataPoint>              points;
     private              List<DataPoint>              polygon;
+    private              KdTree                       tree;
+    private              ScanlineMask                 hullMask;
+    private              Sampler                      sampler;
+    private              SampleGrid                   sampleGrid;
     private              int                          _quality;
     private              IntegerProperty              quality;
     private              int                          _noOfCloserInfluentPoints;
@@ -96,6 +122,19 @@ public class AreaHeatMap extends Region {
     private              double                       minValue;
     private              double                       maxValue;
     private              double                       range;
+    private              ChartMetrics                 metrics;
+    private              Renderer                     renderer;
+    private              Interpolation                interpolation;
+    private              WritableImage                heatMapImage;
+    private              int[]                        heatMapPixels;
+    private              int[]                        colorLut;
+    private              ColorMapping                 colorLutMapping;
+    private              boolean                      colorLutUseColorMapping;
+    private              boolean                      colorLutDiscreteColors;
+    private              double                       colorLutMin;
+    private              double                       colorLutMax;
+    private              boolean                      progressive;
+    private        final AtomicLong                   redrawGeneration;
 
 
     // ******************** Constructors **************************************
@@ -111,7 +150,8 @@ public class AreaHeatMap extends Region {
     public AreaHeatMap(final int NO_OF_CLOSER_INFLUENT_POINTS, final int QUALITY) {
         points                    = new ArrayList<>();
         polygon                   = new ArrayList<>();
-        _quality                  = QUALITY;
+        tree                      = new KdTree(points);
+        _quality                  = Helper.clamp(2, 32, QUALITY);
         _noOfCloserInfluentPoints = NO_OF_CLOSER_INFLUENT_POINTS;
         _heatMapOpacity           = 0.5;
         _dataPointsVisible        = false;
@@ -124,6 +164,12 @@ public class AreaHeatMap extends Region {
         minValue                  = Double.MAX_VALUE;
         maxValue                  = -Double.MAX_VALUE;
         range                     = maxValue - minValue;
+        metrics                   = ChartMetrics.register(this);
+        renderer                  = Renderer.OVALS;
+        interpolation             = Interpolation.INVERSE_DISTANCE;
+        heatMapPixels             = new int[0];
+        progressive               = true;
+        redrawGeneration          = new AtomicLong();
         initGraphics();
         registerListeners();
     }
@@ -162,7 +208,8 @@ public class AreaHeatMap extends Region {
 
     @Override public ObservableList<Node> getChildren() { return super.getChildren(); }
 
-    public int getQuality() { return null == quality ? _quality : quality.get(); }
+    // A bound quality property can't be clamped when it changes, so it is clamped when it is read
+    public int getQuality() { return null == quality ? _quality : Helper.clamp(2, 32, quality.get()); }
     public void setQuality(final Quality QUALITY) { setQuality(QUALITY.getFactor()); }
     public void setQuality(final int QUALITY) {
         if (null == quality) {
@@ -213,7 +260,7 @@ public class AreaHeatMap extends Region {
     public void setHeatMapOpacity(final double OPACITY) {
         if (null == heatMapOpacity) {
             _heatMapOpacity = Helper.clamp(0, 1, OPACITY);
-            redraw();
+            restyle();
         } else {
             heatMapOpacity.set(OPACITY);
         }
@@ -223,7 +270,7 @@ public class AreaHeatMap extends Region {
             heatMapOpacity = new DoublePropertyBase(_heatMapOpacity) {
                 @Override protected void invalidated() {
                     set(Helper.clamp(0, 1, get()));
-                    redraw();
+                    restyle();
                 }
                 @Override public Object getBean() { return AreaHeatMap.this; }
                 @Override public String getName() { return "heatMapOpacity"; }
@@ -236,7 +283,7 @@ public class AreaHeatMap extends Region {
     public void setDataPointsVisible(final boolean VISIBLE) {
         if (null == dataPointsVisible) {
             _dataPointsVisible = VISIBLE;
-            redraw();
+            restyle();
         } else {
             dataPointsVisible.set(VISIBLE);
         }
@@ -244,7 +291,7 @@ public class AreaHeatMap extends Region {
     public BooleanProperty dataPointsVisibleProperty() {
         if (null == dataPointsVisible) {
             dataPointsVisible = new BooleanPropertyBase(_dataPointsVisible) {
-                @Override protected void invalidated() { redraw(); }
+                @Override protected void invalidated() { restyle(); }
                 @Override public Object getBean() { return AreaHeatMap.this; }
                 @Override public String getName() { return "dataPointsVisible"; }
             };
@@ -280,7 +327,7 @@ public class AreaHeatMap extends Region {
     public void setDiscreteColors(final boolean DISCRETE) {
         if (null == discreteColors) {
             _discreteColors = DISCRETE;
-            redraw();
+            restyle();
         } else {
             discreteColors.set(DISCRETE);
         }
@@ -288,7 +335,7 @@ public class AreaHeatMap extends Region {
     public BooleanProperty discreteColorsProperty() {
         if (null == discreteColors) {
             discreteColors = new BooleanPropertyBase(_discreteColors) {
-                @Override protected void invalidated() { redraw(); }
+                @Override protected void invalidated() { restyle(); }
                 @Override public Object getBean() { return AreaHeatMap.this; }
                 @Override public String getName() { return "discreteColors"; }
             };
@@ -300,7 +347,7 @@ public class AreaHeatMap extends Region {
     public void setColorMapping(final ColorMapping MAPPING) {
         if (null == mapping) {
             _mapping = MAPPING;
-            redraw();
+            restyle();
         } else {
             mapping.set(MAPPING);
         }
@@ -308,7 +355,7 @@ public class AreaHeatMap extends Region {
     public ObjectProperty<ColorMapping> mappingProperty() {
         if (null == mapping) {
             mapping = new ObjectPropertyBase<ColorMapping>(_mapping) {
-                @Override protected void invalidated() { redraw(); }
+                @Override protected void invalidated() { restyle(); }
                 @Override public Object getBean() { return AreaHeatMap.this; }
                 @Override public String getName() { return "mapping"; }
             };
@@ -321,7 +368,7 @@ public class AreaHeatMap extends Region {
     public void setUseColorMapping(final boolean USE) {
         if (null == useColorMapping) {
             _useColorMapping = USE;
-            redraw();
+            restyle();
         } else {
             useColorMapping.set(USE);
         }
@@ -329,7 +376,7 @@ public class AreaHeatMap extends Region {
     public BooleanProperty useColorMapping() {
         if (null == useColorMapping) {
             useColorMapping = new BooleanPropertyBase(_useColorMapping) {
-                @Override protected void invalidated() { redraw(); }
+                @Override protected void invalidated() { restyle(); }
                 @Override public Object getBean() { return AreaHeatMap.this; }
                 @Override public String getName() { return "useColorMapping"; }
             };
@@ -337,6 +384,66 @@ public class AreaHeatMap extends Region {
         return useColorMapping;
     }
 
+    /**
+     * Returns the renderer that is used to draw the interpolated values
+     * @return the renderer that is used to draw the interpolated values
+     */
+    public Renderer getRenderer() { return renderer; }
+    /**
+     * The OVALS renderer fills a radial gradient for every sample, the
+     * PIXEL_BUFFER renderer upsamples the samples bilinearly into an
+     * image and writes it at once, which is a lot faster for fine
+     * qualities and gives a smooth image instead of overlapping ovals.
+     * @param RENDERER the renderer that should be used to draw the interpolated values
+     */
+    public void setRenderer(final Renderer RENDERER) {
+        if (null == RENDERER || renderer == RENDERER) { return; }
+        renderer = RENDERER;
+        restyle();
+    }
+
+    /**
+     * Returns the method that is used to interpolate the values between the data points
+     * @return the method that is used to interpolate the values between the data points
+     */
+    public Interpolation getInterpolation() { return interpolation; }
+    /**
+     * INVERSE_DISTANCE weights the values of the closer influent points by
+     * their inverse distance for every sample. DELAUNAY triangulates the data
+     * points once and interpolates linearly within each triangle, so every
+     * sample costs the same no matter how many data points there are and
+     * there are no rings around single data points. The triangulation only
+     * covers the convex hull of the data points.
+     * @param INTERPOLATION the method that should be used to interpolate the values between the data points
+     */
+    public void setInterpolation(final Interpolation INTERPOLATION) {
+        if (null == INTERPOLATION || interpolation == INTERPOLATION) { return; }
+        interpolation = INTERPOLATION;
+        redraw();
+    }
+
+    /**
+     * Returns true if the values are interpolated on a background thread
+     * from a coarse to the requested resolution
+     * @return true if the values are interpolated progressively
+     */
+    public boolean isProgressive() { return progressive; }
+    /**
+     * In progressive mode (the default) the values are interpolated on a
+     * background thread, first on a coarse grid and then on finer ones
+     * until the resolution of the quality is reached. Every pass is drawn
+     * when it is done and changes cancel the passes that are not done yet,
+     * so the ui stays responsive while data points are updated. Otherwise
+     * the values are interpolated on the FX application thread and the
+     * heat map is complete after every change.
+     * @param PROGRESSIVE true if the values should be interpolated progressively
+     */
+    public void setProgressive(final boolean PROGRESSIVE) {
+        if (progressive == PROGRESSIVE) { return; }
+        progressive = PROGRESSIVE;
+        restyle();
+    }
+
     public void setDataPoints(final DataPoint... POINTS) {
         setDataPoints(Arrays.asList(POINTS));
     }
@@ -347,10 +454,13 @@ public class AreaHeatMap extends Region {
 
         points.clear();
         points.addAll(POINTS);
+        tree          = new KdTree(points);
         createHullPolygon();
         redraw();
     }
 
+    public ChartMetrics getMetrics() { return metrics; }
+
     private Color getColorForValue(final double VALUE, final boolean LEVELS) {
         double limit  = 0.55;
         double min    = -30;
@@ -370,6 +480,7 @@ public class AreaHeatMap extends Region {
     }
 
     private void createHullPolygon() {
+        hullMask = null;
         polygon.clear();
         if (isSmoothedHull()) {
             List<DataPoint> p = Helper.createSmoothedHull(points, 16);
@@ -379,50 +490,133 @@ public class AreaHeatMap extends Region {
         }
     }
 
-    private double getValueAt(final int LIMIT, final double X , final double Y) {
-        List<Number[]> arr = new ArrayList<>();
-        double         t   = 0.0;
-        double         b   = 0.0;
-        if(Helper.isInPolygon(X, Y, polygon)) {
-            for (int counter = 0 ; counter < points.size() ; counter++) {
-                DataPoint point = points.get(counter);
-                double distance = Helper.squareDistance(X, Y, point.getX(), point.getY());
-                if (Double.compare(distance, 0) == 0) { return point.getValue(); }
-                arr.add(counter, new Number[] { distance, counter });
-            }
-            arr.sort(Comparator.comparingInt(n -> n[0].intValue()));
-            for (int counter = 0 ; counter < LIMIT ; counter++) {
-                Number[] ptr = arr.get(counter);
-                double inv = 1 / Math.pow(ptr[0].intValue(), 2);
-                t = t + inv * points.get(ptr[1].intValue()).getValue();
-                b = b + inv;
-            }
-            return t / b;
+    private void draw(final SampleGrid GRID) {
+        ctx.clearRect(0, 0, width, height);
+        if (Renderer.PIXEL_BUFFER == renderer) {
+            drawPixels(GRID);
         } else {
-            return -255;
+            drawOvals(GRID);
         }
+        if (getShowDataPoints()) { drawDataPoints(); }
     }
 
-    private void draw(final int LIMIT, final double RESOLUTION) {
-        int limit        = LIMIT > points.size() ? points.size() : LIMIT + 1;
-        double pixelSize = 2 * RESOLUTION;
-
-        ctx.clearRect(0, 0, width, height);
-
-        for (double y = 0 ; y < height ; y += RESOLUTION) {
-            for (double x = 0 ; x < width ; x += RESOLUTION) {
-                double value = getValueAt(limit, x, y);
-                if (value != -255) {
+    private void drawOvals(final SampleGrid GRID) {
+        final double  resolution = GRID.resolution;
+        final int     cols       = GRID.cols;
+        final int     rows       = GRID.rows;
+        final float[] values     = GRID.values;
+        double        pixelSize  = 2 * resolution;
+        long          drawn      = 0;
+        long          skipped    = 0;
+
+        for (int row = 0 ; row < rows ; row++) {
+            double y = row * resolution;
+            for (int col = 0 ; col < cols ; col++) {
+                double x     = col * resolution;
+                float  value = values[row * cols + col];
+                if (!Float.isNaN(value)) {
                     Color          color    = getUseColorMapping() ? getColorForValue(value) : getColorForValue(value, isDiscreteColors());
-                    RadialGradient gradient = new RadialGradient(0, 0, x, y, RESOLUTION,
+                    RadialGradient gradient = new RadialGradient(0, 0, x, y, resolution,
                                                                  false, CycleMethod.NO_CYCLE,
                                                                  new Stop(0, Color.color(color.getRed(), color.getGreen(), color.getBlue(), getHeatMapOpacity())),
                                                                  new Stop(1, Color.color(color.getRed(), color.getGreen(), color.getBlue(), 0.0)));
                     ctx.setFill(gradient);
-                    ctx.fillOval(x - RESOLUTION, y - RESOLUTION, pixelSize, pixelSize);
+                    ctx.fillOval(x - resolution, y - resolution, pixelSize, pixelSize);
+                    drawn++;
+                } else {
+                    skipped++;
                 }
             }
         }
+        metrics.addItemsDrawn(drawn);
+        metrics.addItemsSkipped(skipped);
+    }
+
+    private void drawPixels(final SampleGrid GRID) {
+        final double  resolution  = GRID.resolution;
+        final int     cols        = GRID.cols;
+        final int     rows        = GRID.rows;
+        final float[] values      = GRID.values;
+        final int     imageWidth  = (int) Math.min(Math.ceil(width), (cols - 1) * resolution + 1);
+        final int     imageHeight = (int) Math.min(Math.ceil(height), (rows - 1) * resolution + 1);
+        if (imageWidth <= 0 || imageHeight <= 0) { return; }
+
+        long drawn = 0;
+        for (float value : values) { if (!Float.isNaN(value)) { drawn++; } }
+        metrics.addItemsDrawn(drawn);
+        metrics.addItemsSkipped(values.length - drawn);
+        if (0 == drawn) { return; }
+
+        if (null == heatMapImage || (int) heatMapImage.getWidth() != imageWidth || (int) heatMapImage.getHeight() != imageHeight) {
+            heatMapImage  = new WritableImage(imageWidth, imageHeight);
+            heatMapPixels = new int[imageWidth * imageHeight];
+        }
+
+        final int[]  lut      = getColorLut();
+        final double lutMin   = colorLutMin;
+        final double lutMax   = colorLutMax;
+        final double lutScale = lutMax > lutMin ? (LUT_SIZE - 1) / (lutMax - lutMin) : 0;
+        final double opacity  = getHeatMapOpacity() * 255;
+        final int[]  pixels   = heatMapPixels;
+
+        // Bilinear upsampling of the samples, samples outside of the hull are left out and fade out the edge
+        RowBands.process(imageHeight, imageWidth, (fromRow, toRow) -> {
+            for (int y = fromRow ; y < toRow ; y++) {
+                double gy   = y / resolution;
+                int    row0 = Math.min((int) gy, rows - 2);
+                float  fy   = (float) (gy - row0);
+                int    line = y * imageWidth;
+                for (int x = 0 ; x < imageWidth ; x++) {
+                    double gx   = x / resolution;
+                    int    col0 = Math.min((int) gx, cols - 2);
+                    float  fx   = (float) (gx - col0);
+                    int    i00  = row0 * cols + col0;
+                    int    i10  = i00 + cols;
+                    float  sum  = 0;
+                    float  w    = 0;
+                    float  wgt;
+                    if (!Float.isNaN(values[i00]))     { wgt = (1 - fx) * (1 - fy); sum += wgt * values[i00];     w += wgt; }
+                    if (!Float.isNaN(values[i00 + 1])) { wgt = fx * (1 - fy);       sum += wgt * values[i00 + 1]; w += wgt; }
+                    if (!Float.isNaN(values[i10]))     { wgt = (1 - fx) * fy;       sum += wgt * values[i10];     w += wgt; }
+                    if (!Float.isNaN(values[i10 + 1])) { wgt = fx * fy;             sum += wgt * values[i10 + 1]; w += wgt; }
+                    if (w <= 0) {
+                        pixels[line + x] = 0;
+                    } else {
+                        int index = (int) ((sum / w - lutMin) * lutScale);
+                        index = index < 0 ? 0 : (index >= LUT_SIZE ? LUT_SIZE - 1 : index);
+                        pixels[line + x] = ((int) (opacity * Math.min(1, w)) << 24) | lut[index];
+                    }
+                }
+            }
+        });
+        heatMapImage.getPixelWriter().setPixels(0, 0, imageWidth, imageHeight, PIXEL_FORMAT, pixels, 0, imageWidth);
+        ctx.drawImage(heatMapImage, 0, 0);
+    }
+
+    // Colors of the value range, the alpha channel is added per pixel. Only rebuilt if the mapping, the color mode or the value range changed.
+    private int[] getColorLut() {
+        final boolean      useColorMapping = getUseColorMapping();
+        final boolean      discreteColors  = isDiscreteColors();
+        final ColorMapping mapping         = getMapping();
+        final double       lutMin          = useColorMapping ? minValue : -30;
+        final double       lutMax          = useColorMapping ? maxValue : 50;
+        if (null != colorLut && colorLutUseColorMapping == useColorMapping && colorLutDiscreteColors == discreteColors && colorLutMapping == mapping &&
+            Double.compare(colorLutMin, lutMin) == 0 && Double.compare(colorLutMax, lutMax) == 0) {
+            return colorLut;
+        }
+        final int[] lut = null == colorLut ? new int[LUT_SIZE] : colorLut;
+        for (int i = 0 ; i < LUT_SIZE ; i++) {
+            double fraction = (double) i / (LUT_SIZE - 1);
+            Color  color    = useColorMapping ? Helper.getColorAt(mapping.getGradient(), fraction) : getColorForValue(lutMin + (lutMax - lutMin) * fraction, discreteColors);
+            lut[i] = ((int) Math.round(color.getRed() * 255) << 16) | ((int) Math.round(color.getGreen() * 255) << 8) | (int) Math.round(color.getBlue() * 255);
+        }
+        colorLut                = lut;
+        colorLutMapping         = mapping;
+        colorLutUseColorMapping = useColorMapping;
+        colorLutDiscreteColors  = discreteColors;
+        colorLutMin             = lutMin;
+        colorLutMax             = lutMax;
+        return lut;
     }
 
     private void drawDataPoints() {
@@ -453,6 +647,7 @@ public class AreaHeatMap extends Region {
         size   = width < height ? width : height;
 
         if (width > 0 && height > 0) {
+            if (null != hullMask && hullMask.getRows() != getHullMaskRows()) { hullMask = null; }
             canvas.setWidth(width);
             canvas.setHeight(height);
             canvas.relocate((getWidth() - width) * 0.5, (getHeight() - height) * 0.5);
@@ -461,8 +656,278 @@ public class AreaHeatMap extends Region {
         }
     }
 
+    /**
+     * Interpolates the values on a grid of samples and draws it. In
+     * progressive mode the grid is computed on a background thread in
+     * passes from a coarse to the requested resolution and each pass is
+     * drawn as soon as it is done. A redraw cancels all passes of the
+     * previous one that are still running or waiting.
+     */
     private void redraw() {
-        draw(getNoOfCloserInfluentPoints(), getQuality());
-        if (getShowDataPoints()) { drawDataPoints(); }
+        final long generation = redrawGeneration.incrementAndGet();
+        if (width <= 0 || height <= 0 || points.isEmpty()) {
+            sampler    = null;
+            sampleGrid = null;
+            ctx.clearRect(0, 0, width, height);
+            if (getShowDataPoints()) { drawDataPoints(); }
+            return;
+        }
+        if (null == hullMask) { hullMask = new ScanlineMask(polygon, getHullMaskRows()); }
+        final int     quality = getQuality();
+        final Sampler current = new Sampler(points, hullMask, tree, isDelaunay(), getNoOfCloserInfluentPoints() + 1, width, height, quality);
+        // The triangulation only depends on the data points, it is reused as long as they don't change
+        if (null != sampler && sampler.tree == tree) { current.triangulation = sampler.triangulation; }
+        sampler = current;
+        if (!progressive) {
+            publish(generation, current.sample(quality, null, () -> false));
+            return;
+        }
+
+        final BooleanSupplier cancelled = () -> redrawGeneration.get() != generation;
+        REFINEMENT_EXECUTOR.execute(() -> {
+            SampleGrid grid = null;
+            // Rasterizing the triangulation is cheap enough to skip the coarse passes
+            for (int resolution : Interpolation.DELAUNAY == interpolation ? new int[] { quality } : getPassResolutions(quality)) {
+                if (cancelled.getAsBoolean()) { return; }
+                grid = current.sample(resolution, grid, cancelled);
+                if (null == grid) { return; }
+                final SampleGrid pass = grid;
+                Platform.runLater(() -> publish(generation, pass));
+            }
+        });
+    }
+
+    /**
+     * Style changes (colors, opacity, renderer, data points) only redraw
+     * the last interpolated grid as long as it was computed from the
+     * current data points, size, quality and number of influent points.
+     * A refinement that is still running continues with the new style.
+     */
+    private void restyle() {
+        if (null == sampler || !sampler.isSameField(tree, hullMask, isDelaunay(), getNoOfCloserInfluentPoints() + 1, width, height, getQuality())) {
+            metrics.cacheMiss();
+            redraw();
+            return;
+        }
+        // The first pass of the refinement is not done yet and will be drawn with the new style
+        if (null == sampleGrid || sampleGrid.sampler != sampler) { return; }
+        metrics.cacheHit();
+        metrics.startRedraw();
+        try {
+            draw(sampleGrid);
+        } finally {
+            metrics.endRedraw();
+        }
+    }
+
+    private void publish(final long GENERATION, final SampleGrid GRID) {
+        if (redrawGeneration.get() != GENERATION) { return; }
+        sampleGrid = GRID;
+        metrics.startRedraw();
+        try {
+            draw(GRID);
+        } finally {
+            metrics.endRedraw();
+        }
+    }
+
+    private boolean isDelaunay() { return Interpolation.DELAUNAY == interpolation; }
+
+    // The grids of samples reach up to one (coarsest) sample beyond the bottom edge
+    private int getHullMaskRows() { return (int) Math.ceil(height) + COARSEST_RESOLUTION + 1; }
+
+    // Resolutions of the passes from coarse to fine, each pass halves the resolution of the previous one
+    private static int[] getPassResolutions(final int QUALITY) {
+        final int quality = Helper.clamp(1, COARSEST_RESOLUTION, QUALITY);
+        int       passes  = 1;
+        while (quality << passes <= COARSEST_RESOLUTION) { passes++; }
+        int[] resolutions = new int[passes];
+        for (int i = 0 ; i < passes ; i++) { resolutions[i] = quality << (passes - 1 - i); }
+        return resolutions;
+    }
+
+
+    // ******************** Inner Classes *************************************
+    /**
+     * Interpolated values on a grid with the given resolution, the grid has
+     * one more column and row than needed to cover the area so that the
+     * right and bottom edge can be interpolated. NaN marks samples outside
+     * of the hull.
+     */
+    private static class SampleGrid {
+        private final Sampler sampler;
+        private final float[] values;
+        private final int     cols;
+        private final int     rows;
+        private final double  resolution;
+
+
+        // ******************** Constructors **********************************
+        SampleGrid(final Sampler SAMPLER, final double RESOLUTION) {
+            sampler    = SAMPLER;
+            cols       = (int) Math.ceil(SAMPLER.width / RESOLUTION) + 1;
+            rows       = (int) Math.ceil(SAMPLER.height / RESOLUTION) + 1;
+            resolution = RESOLUTION;
+            values     = new float[cols * rows];
+        }
+    }
+
+    /**
+     * Snapshot of the data points, the hull mask, the k-d tree and the
+     * size, so that the values can be interpolated on a background thread
+     * while the data points of the heat map change. The triangulation for
+     * the DELAUNAY interpolation is built from the snapshot by the first
+     * pass that needs it, so on the refinement thread in progressive mode.
+     * Also serves as the key of the interpolated grids.
+     */
+    private static class Sampler {
+        private final    double[]              xs;
+        private final    double[]              ys;
+        private final    double[]              values;
+        private final    ScanlineMask          hullMask;
+        private final    KdTree                tree;
+        private final    boolean               delaunay;
+        private volatile DelaunayTriangulation triangulation;
+        private final    int                   limit;
+        private final    double                width;
+        private final    double                height;
+        private final    int                   quality;
+
+
+        // ******************** Constructors **********************************
+        /**
+         * @param DELAUNAY true to interpolate within the triangles of the triangulation, false to use inverse distance weighting
+         */
+        Sampler(final List<DataPoint> POINTS, final ScanlineMask HULL_MASK, final KdTree TREE, final boolean DELAUNAY, final int LIMIT,
+                final double WIDTH, final double HEIGHT, final int QUALITY) {
+            xs            = POINTS.stream().mapToDouble(DataPoint::getX).toArray();
+            ys            = POINTS.stream().mapToDouble(DataPoint::getY).toArray();
+            values        = POINTS.stream().mapToDouble(DataPoint::getValue).toArray();
+            hullMask      = HULL_MASK;
+            tree          = TREE;
+            delaunay      = DELAUNAY;
+            limit         = Math.min(LIMIT, values.length);
+            width         = WIDTH;
+            height        = HEIGHT;
+            quality       = QUALITY;
+        }
+
+
+        // ******************** Methods ***************************************
+        // The tree and the mask are recreated whenever the data points or the hull change
+        boolean isSameField(final KdTree TREE, final ScanlineMask HULL_MASK, final boolean DELAUNAY, final int LIMIT, final double WIDTH, final double HEIGHT, final int QUALITY) {
+            return tree == TREE && hullMask == HULL_MASK && delaunay == DELAUNAY && limit == Math.min(LIMIT, values.length) &&
+                   Double.compare(width, WIDTH) == 0 && Double.compare(height, HEIGHT) == 0 && quality == QUALITY;
+        }
+
+        /**
+         * Interpolates the values on a grid with the given resolution. Samples that are
+         * also part of the given coarser grid (with twice the resolution) are taken from it.
+         * @return the grid or null if the computation was cancelled
+         */
+        SampleGrid sample(final int RESOLUTION, final SampleGrid COARSER, final BooleanSupplier CANCELLED) {
+            if (delaunay) { return rasterize(RESOLUTION, CANCELLED); }
+            final SampleGrid grid   = new SampleGrid(this, RESOLUTION);
+            final boolean    reuse  = null != COARSER && Double.compare(COARSER.resolution, 2 * RESOLUTION) == 0;
+            final int        cols   = grid.cols;
+            final float[]    values = grid.values;
+            // Interpolating the values is the expensive part (a k nearest query per sample) and is done in parallel bands of rows,
+            // every band uses its own neighbor buffer
+            RowBands.process(grid.rows, cols * Math.max(1, limit), (fromRow, toRow) -> {
+                KdTree.Neighbors neighbors = new KdTree.Neighbors();
+                for (int row = fromRow ; row < toRow ; row++) {
+                    if (CANCELLED.getAsBoolean()) { return; }
+                    boolean reuseRow = reuse && (row & 1) == 0 && (row >> 1) < COARSER.rows;
+                    for (int col = 0 ; col < cols ; col++) {
+                        if (reuseRow && (col & 1) == 0 && (col >> 1) < COARSER.cols) {
+                            values[row * cols + col] = COARSER.values[(row >> 1) * COARSER.cols + (col >> 1)];
+                        } else {
+                            values[row * cols + col] = getValueAt(col * RESOLUTION, row * RESOLUTION, neighbors);
+                        }
+                    }
+                }
+            });
+            return CANCELLED.getAsBoolean() ? null : grid;
+        }
+
+        /**
+         * Fills the triangles of the triangulation row by row, the values are
+         * interpolated linearly (barycentric) within each triangle. Along a row
+         * the value only changes by a constant step per sample.
+         * @return the grid or null if the computation was cancelled
+         */
+        private SampleGrid rasterize(final int RESOLUTION, final BooleanSupplier CANCELLED) {
+            if (null == triangulation) { triangulation = new DelaunayTriangulation(xs, ys); }
+            if (CANCELLED.getAsBoolean()) { return null; }
+            final SampleGrid grid    = new SampleGrid(this, RESOLUTION);
+            final int        cols    = grid.cols;
+            final int        rows    = grid.rows;
+            final float[]    samples = grid.values;
+            Arrays.fill(samples, Float.NaN);
+            RowBands.process(rows, cols, (fromRow, toRow) -> {
+                final double[] span = new double[2];
+                for (int triangle = 0 ; triangle < triangulation.getNoOfTriangles() ; triangle++) {
+                    if (CANCELLED.getAsBoolean()) { return; }
+                    final int    a   = triangulation.getCorner(triangle, 0);
+                    final int    b   = triangulation.getCorner(triangle, 1);
+                    final int    c   = triangulation.getCorner(triangle, 2);
+                    final double det = (xs[b] - xs[a]) * (ys[c] - ys[a]) - (xs[c] - xs[a]) * (ys[b] - ys[a]);
+                    if (Double.compare(det, 0) == 0) { continue; }
+
+                    // Gradient of the plane through the three corners
+                    final double dVdX     = ((values[b] - values[a]) * (ys[c] - ys[a]) - (values[c] - values[a]) * (ys[b] - ys[a])) / det;
+                    final double dVdY     = ((xs[b] - xs[a]) * (values[c] - values[a]) - (xs[c] - xs[a]) * (values[b] - values[a])) / det;
+                    final double step     = dVdX * RESOLUTION;
+                    final int    firstRow = Math.max(fromRow, (int) Math.ceil(Math.min(ys[a], Math.min(ys[b], ys[c])) / RESOLUTION));
+                    final int    lastRow  = Math.min(toRow - 1, (int) Math.floor(Math.max(ys[a], Math.max(ys[b], ys[c])) / RESOLUTION));
+                    for (int row = firstRow ; row <= lastRow ; row++) {
+                        final int y = row * RESOLUTION;
+                        span[0] = Double.MAX_VALUE;
+                        span[1] = -Double.MAX_VALUE;
+                        addToSpan(a, b, y, span);
+                        addToSpan(b, c, y, span);
+                        addToSpan(c, a, y, span);
+                        final int firstCol = Math.max(0, (int) Math.ceil(span[0] / RESOLUTION));
+                        final int lastCol  = Math.min(cols - 1, (int) Math.floor(span[1] / RESOLUTION));
+                        double    value    = values[a] + dVdX * (firstCol * RESOLUTION - xs[a]) + dVdY * (y - ys[a]);
+                        for (int col = firstCol ; col <= lastCol ; col++, value += step) {
+                            if (hullMask.contains(col * RESOLUTION, y)) { samples[row * cols + col] = (float) value; }
+                        }
+                    }
+                }
+            });
+            return CANCELLED.getAsBoolean() ? null : grid;
+        }
+
+        // Extends the span by the crossing of the edge with the row, the corners are ordered so that both triangles of an edge get the same crossing
+        private void addToSpan(final int FROM, final int TO, final double Y, final double[] SPAN) {
+            final int lower = ys[FROM] <= ys[TO] ? FROM : TO;
+            final int upper = lower == FROM ? TO : FROM;
+            if (Y < ys[lower] || Y > ys[upper]) { return; }
+            if (Double.compare(ys[lower], ys[upper]) == 0) {
+                // Horizontal edge on the row
+                SPAN[0] = Math.min(SPAN[0], Math.min(xs[lower], xs[upper]));
+                SPAN[1] = Math.max(SPAN[1], Math.max(xs[lower], xs[upper]));
+                return;
+            }
+            final double x = xs[lower] + (xs[upper] - xs[lower]) * (Y - ys[lower]) / (ys[upper] - ys[lower]);
+            SPAN[0] = Math.min(SPAN[0], x);
+            SPAN[1] = Math.max(SPAN[1], x);
+        }
+
+        private float getValueAt(final int X, final int Y, final KdTree.Neighbors NEIGHBORS) {
+            if (!hullMask.contains(X, Y)) { return Float.NaN; }
+            double t = 0.0;
+            double b = 0.0;
+            tree.nearest(X, Y, limit, NEIGHBORS);
+            for (int i = 0 ; i < NEIGHBORS.size() ; i++) {
+                double distance = NEIGHBORS.getDistance(i);
+                if (Double.compare(distance, 0) == 0) { return (float) values[NEIGHBORS.getIndex(i)]; }
+                double inv = 1 / (distance * distance);
+                t = t + inv * values[NEIGHBORS.getIndex(i)];
+                b = b + inv;
+            }
+            return (float) (t / b);
+        }
     }
 }
@@ -16,7 +16,9 @@
 
 package eu.hansolo.fx.charts.areaheatmap;
 
+import eu.hansolo.fx.charts.areaheatmap.AreaHeatMap.Interpolation;
 import eu.hansolo.fx.charts.areaheatmap.AreaHeatMap.Quality;
+import eu.hansolo.fx.charts.areaheatmap.AreaHeatMap.Renderer;
 import eu.hansolo.fx.charts.data.DataPoint;
 import eu.hansolo.fx.charts.tools.ColorMapping;
 import javafx.beans.property.BooleanProperty;
@@ -85,6 +87,16 @@ public class AreaHeatMapBuilder<B extends AreaHeatMapBuilder<B>> {
         return (B)this;
     }
 
+    public final B renderer(final Renderer RENDERER) {
+        properties.put("renderer", new SimpleObjectProperty<>(RENDERER));
+        return (B)this;
+    }
+
+    public final B interpolation(final Interpolation INTERPOLATION) {
+        properties.put("interpolation", new SimpleObjectProperty<>(INTERPOLATION));
+        return (B)this;
+    }
+
     public final B dataPointsVisible(final boolean VISIBLE) {
         properties.put("dataPointsVisible", new SimpleBooleanProperty(VISIBLE));
         return (B)this;
@@ -123,6 +135,10 @@ public class AreaHeatMapBuilder<B extends AreaHeatMapBuilder<B>> {
                 CONTROL.setUseColorMapping(((BooleanProperty) properties.get(key)).get());
             } else if ("quality".equals(key)) {
                 CONTROL.setQuality(((IntegerProperty) properties.get(key)).get());
+            } else if ("renderer".equals(key)) {
+                CONTROL.setRenderer(((ObjectProperty<Renderer>) properties.get(key)).get());
+            } else if ("interpolation".equals(key)) {
+                CONTROL.setInterpolation(((ObjectProperty<Interpolation>) properties.get(key)).get());
             } else if ("heatMapOpacity".equals(key)) {
                 CONTROL.setHeatMapOpacity(((DoubleProperty) properties.get(key)).get());
             } else if ("dataPointsVisible".equals(key)) {
@@ -16,6 +16,7 @@
 
 package eu.hansolo.fx.charts.forcedirectedgraph;
 
+import eu.hansolo.fx.charts.tools.ChartMetrics;
 import eu.hansolo.fx.charts.tools.Helper;
 import javafx.animation.AnimationTimer;
 import javafx.beans.DefaultProperty;
@@ -111,6 +112,7 @@ public class GraphPanel extends Region {
     private              ArrayList<String>        stringNodeAttributes;
 
     private              GraphCalculator          graphCalculator;
+    private              ChartMetrics             metrics;
 
 
     // ******************** Constructors **************************************
@@ -169,7 +171,7 @@ public class GraphPanel extends Region {
         }
 
         popup                    = new InfoPopup();
-
+        metrics                  = ChartMetrics.register(this);
 
         initGraphics();
         registerListeners();
@@ -238,6 +240,9 @@ public class GraphPanel extends Region {
 
     private double cool(final double TEMPERATURE) { return (TEMPERATURE-1) * .93; }
 
+    // Resets the temperature without restarting the animation timer (used by the benchmarks)
+    void resetTemperature() { temp = BASE_TEMPERATURE; }
+
     private double repulseForce(final double DISTANCE, final double K) { return (calculateScaleFactor() > 0? calculateScaleFactor() :1) * (K * K) / (DISTANCE * DISTANCE); }
 
     private double attractForce(final double DISTANCE, final double K) {
@@ -823,9 +828,21 @@ public class GraphPanel extends Region {
         return distanceScalingFactor;
     }
 
+    public ChartMetrics getMetrics() { return metrics; }
+
 
     // ******************** Redraw ********************************************
     public void redraw() {
+        metrics.startRedraw();
+        try {
+            drawGraph();
+            metrics.addItemsDrawn(nodeEdgeModel.getEdges().size() + nodeEdgeModel.getNodes().size());
+        } finally {
+            metrics.endRedraw();
+        }
+    }
+
+    private void drawGraph() {
         ctx.clearRect(0, 0, width, height);
 
         ctx.setStroke(getEdgeColor());
@@ -16,10 +16,12 @@
 
 package eu.hansolo.fx.charts.heatmap;
 
+import eu.hansolo.fx.charts.tools.ChartMetrics;
 import eu.hansolo.fx.charts.tools.ColorMapping;
 import eu.hansolo.fx.charts.tools.Helper;
 import eu.hansolo.fx.charts.tools.Point;
-import javafx.animation.Interpolator;
+import eu.hansolo.fx.charts.tools.RowBands;
+import javafx.animation.AnimationTimer;
 import javafx.application.Platform;
 import javafx.embed.swing.SwingFXUtils;
 import javafx.scene.Node;
@@ -28,37 +30,80 @@ import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
-import javafx.scene.image.PixelReader;
-import javafx.scene.image.PixelWriter;
+import javafx.scene.image.PixelFormat;
 import javafx.scene.image.WritableImage;
+import javafx.scene.image.WritablePixelFormat;
 import javafx.scene.paint.Color;
 import javafx.scene.paint.LinearGradient;
-import javafx.scene.paint.Stop;
 
 import javax.imageio.ImageIO;
 import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.nio.IntBuffer;
+import java.util.ArrayDeque;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Deque;
 import java.util.List;
-import java.util.Map;
 
 
 public class HeatMap extends ImageView {
-    private static final SnapshotParameters SNAPSHOT_PARAMETERS = new SnapshotParameters();
-    private              List<HeatMapSpot>   spotList;
-    private              Map<String, Image>  spotImages;
-    private              ColorMapping        colorMapping;
-    private              LinearGradient      mappingGradient;
-    private              boolean             fadeColors;
-    private              double              radius;
-    private              OpacityDistribution opacityDistribution;
-    private              Image               spotImage;
-    private              Canvas              monochrome;
-    private              GraphicsContext     ctx;
-    private              WritableImage       monochromeImage;
-    private              WritableImage       heatMap;
+    /**
+     * CANVAS         : spots are drawn on a monochrome canvas which is snapshotted and recolored on each update
+     * DENSITY_BUFFER : the depths -ln(1 - alpha) of the spots are added to a float density buffer and only the
+     *                  changed region is recolored, so overlapping spots composite like on the canvas (SRC_OVER)
+     * KDE            : spots are counted per pixel and the counts are blurred (kernel density estimation),
+     *                  the costs only depend on the size of the heat map and not on the number of spots
+     */
+    public enum Engine { CANVAS, DENSITY_BUFFER, KDE }
+
+    private static final SnapshotParameters             SNAPSHOT_PARAMETERS     = new SnapshotParameters();
+    private static final WritablePixelFormat<IntBuffer> PIXEL_FORMAT            = PixelFormat.getIntArgbInstance();
+    private static final int                            LUT_SIZE                = 256;
+    public  static final int                            DEFAULT_MAX_NO_OF_SPOTS = 100_000;
+    private static final long                           DECAY_INTERVAL          = 50_000_000L;
+    private static final int                            RENORMALIZE_HALF_LIVES  = 16;
+    private static final int                            PRUNE_HALF_LIVES        = 12;
+    private static final float                          MIN_VISIBLE_DENSITY     = 0.5f / (LUT_SIZE - 1);
+    private static final int                            NO_OF_BLUR_PASSES       = 3;
+    private              Deque<HeatMapSpot>             spotList;
+    private              ColorMapping                   colorMapping;
+    private              LinearGradient                 mappingGradient;
+    private              boolean                        fadeColors;
+    private              double                         radius;
+    private              OpacityDistribution            opacityDistribution;
+    private              Image                          spotImage;
+    private              Canvas                         monochrome;
+    private              GraphicsContext                ctx;
+    private              WritableImage                  monochromeImage;
+    private              WritableImage                  heatMap;
+    private              int[]                          colorLut;
+    private              int[]                          monochromePixels;
+    private              int[]                          heatMapPixels;
+    private              Engine                         engine;
+    private              float[]                        density;
+    private              float[]                        counts;
+    private              float[]                        blurBuffer;
+    private              boolean                        countsChanged;
+    private              int                            densityWidth;
+    private              int                            densityHeight;
+    private              SpotKernel                     lastKernel;
+    private              double                         lastKernelRadius;
+    private              Image                          lastCustomImage;
+    private              float[]                        lastCustomDepth;
+    private              int                            dirtyMinX;
+    private              int                            dirtyMinY;
+    private              int                            dirtyMaxX;
+    private              int                            dirtyMaxY;
+    private              int                            maxNoOfSpots;
+    private              long                           halfLife;
+    private              long                           decayOrigin;
+    private              float                          maxDensity;
+    private              AnimationTimer                 decayTimer;
+    private              AnimationTimer                 publishTimer;
+    private              boolean                        publishPending;
+    private              boolean                        decayTimerRunning;
+    private              long                           lastDecayUpdate;
+    private              ChartMetrics                   metrics;
 
 
     // ******************** Constructors **************************************
@@ -75,15 +120,26 @@ public class HeatMap extends ImageView {
         this(WIDTH, HEIGHT, COLOR_MAPPING, SPOT_RADIUS, true, 0.5, OpacityDistribution.CUSTOM);
     }
     public HeatMap(final double WIDTH, final double HEIGHT, ColorMapping COLOR_MAPPING, final double SPOT_RADIUS, final boolean FADE_COLORS, final double HEAT_MAP_OPACITY, final OpacityDistribution OPACITY_DISTRIBUTION) {
+        this(WIDTH, HEIGHT, COLOR_MAPPING, SPOT_RADIUS, FADE_COLORS, HEAT_MAP_OPACITY, OPACITY_DISTRIBUTION, Engine.CANVAS);
+    }
+    public HeatMap(final double WIDTH, final double HEIGHT, ColorMapping COLOR_MAPPING, final double SPOT_RADIUS, final boolean FADE_COLORS, final double HEAT_MAP_OPACITY, final OpacityDistribution OPACITY_DISTRIBUTION, final Engine ENGINE) {
         super();
         SNAPSHOT_PARAMETERS.setFill(Color.TRANSPARENT);
-        spotList            = new ArrayList<>();
-        spotImages          = new HashMap<>();
+        spotList            = new ArrayDeque<>();
+        maxNoOfSpots        = DEFAULT_MAX_NO_OF_SPOTS;
+        decayOrigin         = System.nanoTime();
         colorMapping        = COLOR_MAPPING;
         mappingGradient     = colorMapping.getGradient();
         fadeColors          = FADE_COLORS;
         radius              = SPOT_RADIUS;
         opacityDistribution = OPACITY_DISTRIBUTION;
+        monochromePixels    = new int[0];
+        heatMapPixels       = new int[0];
+        engine              = null == ENGINE ? Engine.CANVAS : ENGINE;
+        density             = new float[0];
+        counts              = new float[0];
+        blurBuffer          = new float[0];
+        metrics             = ChartMetrics.register(this);
         spotImage           = createSpotImage(radius, opacityDistribution);
         monochrome          = new Canvas(WIDTH, HEIGHT);
         ctx                 = monochrome.getGraphicsContext2D();
@@ -91,9 +147,34 @@ public class HeatMap extends ImageView {
         setImage(heatMap);
         setMouseTransparent(true);
         setOpacity(HEAT_MAP_OPACITY);
+        updateColorLut();
+        resetDensity();
+        initDecayTimer();
+        initPublishTimer();
         registerListeners();
     }
 
+    // Collects all changes of the density engines until the next pulse and publishes them at once
+    private void initPublishTimer() {
+        publishTimer = new AnimationTimer() {
+            @Override public void handle(final long NOW) {
+                stop();
+                publishPending = false;
+                renderHeatMap();
+            }
+        };
+    }
+
+    private void initDecayTimer() {
+        decayTimer = new AnimationTimer() {
+            @Override public void handle(final long NOW) {
+                if (NOW - lastDecayUpdate < DECAY_INTERVAL) { return; }
+                lastDecayUpdate = NOW;
+                decay(NOW);
+            }
+        };
+    }
+
     public void registerListeners() {
         fitWidthProperty().addListener(o -> resize());
         fitHeightProperty().addListener(o -> resize());
@@ -113,9 +194,10 @@ public class HeatMap extends ImageView {
      * @param SPOTS
      */
     public void addSpots(final List<Point> SPOTS) {
+        final long now = System.nanoTime();
         SPOTS.forEach(spot -> {
-            spotList.add(new HeatMapSpot(spot.getX(), spot.getY(), radius, opacityDistribution));
-            ctx.drawImage(spotImage, spot.getX() - radius, spot.getY() - radius);
+            addToSpotList(new HeatMapSpot(spot.getX(), spot.getY(), radius, opacityDistribution, now));
+            drawSpot(spotImage, spot.getX() - radius, spot.getY() - radius, now);
         });
         updateHeatMap();
     }
@@ -151,8 +233,9 @@ public class HeatMap extends ImageView {
      * @param OFFSET_Y
      */
     public void addSpot(final double X, final double Y, final Image EVENT_IMAGE, final double OFFSET_X, final double OFFSET_Y) {
-        spotList.add(new HeatMapSpot(X, Y, radius, opacityDistribution));
-        ctx.drawImage(EVENT_IMAGE, X - OFFSET_X, Y - OFFSET_Y);
+        final long now = System.nanoTime();
+        addToSpotList(new HeatMapSpot(X, Y, radius, opacityDistribution, now));
+        drawSpot(EVENT_IMAGE, X - OFFSET_X, Y - OFFSET_Y, now);
         updateHeatMap();
     }
 
@@ -161,11 +244,81 @@ public class HeatMap extends ImageView {
      */
     public void clearHeatMap() {
         spotList.clear();
+        stopDecayTimer();
         ctx.clearRect(0, 0, monochrome.getWidth(), monochrome.getHeight());
         monochromeImage = new WritableImage(monochrome.widthProperty().intValue(), monochrome.heightProperty().intValue());
+        resetDensity();
         updateHeatMap();
     }
 
+    /**
+     * Returns the engine that is used to accumulate the spots
+     * @return the engine that is used to accumulate the spots
+     */
+    public Engine getEngine() { return engine; }
+    /**
+     * The CANVAS engine draws the spots on a canvas and needs a snapshot
+     * and a complete recolor of the heat map for each update. The
+     * DENSITY_BUFFER engine adds the spots to a float buffer and only
+     * recolors the region that was changed which makes it possible to
+     * stream thousands of spots per second. The KDE engine counts the
+     * spots per pixel and blurs the counts with a gaussian that has the
+     * same spread and mass as the spot defined by the spot radius and
+     * opacity distribution. Each update costs the same no matter how
+     * many spots are shown, so add millions of spots with addSpots().
+     * The KDE engine uses the spot radius and opacity distribution of
+     * the heat map for all spots. Both density engines collect all
+     * changes until the next pulse and publish them at once. Switching
+     * the engine will recreate the heat map from the existing spots.
+     * @param ENGINE
+     */
+    public void setEngine(final Engine ENGINE) {
+        if (null == ENGINE || engine == ENGINE) { return; }
+        if (Engine.CANVAS == ENGINE) { halfLife = 0; }
+        engine = ENGINE;
+        redrawSpots();
+    }
+
+    /**
+     * Returns the half life in milliseconds of the spots, 0 means that
+     * spots don't fade out
+     * @return the half life in milliseconds of the spots
+     */
+    public long getHalfLife() { return halfLife; }
+    /**
+     * If the half life is larger than 0 the contribution of each spot
+     * to the heat map halves after the given time which makes the map
+     * show recent events of a stream. Fading out only works with the
+     * DENSITY_BUFFER and KDE engine, setting a half life switches from
+     * CANVAS to DENSITY_BUFFER.
+     * A half life of 0 disables fading.
+     * @param MILLISECONDS
+     */
+    public void setHalfLife(final long MILLISECONDS) {
+        long halfLife = Math.max(0, MILLISECONDS);
+        if (this.halfLife == halfLife) { return; }
+        if (halfLife > 0 && Engine.CANVAS == engine) { engine = Engine.DENSITY_BUFFER; }
+        this.halfLife = halfLife;
+        redrawSpots();
+    }
+
+    /**
+     * Returns the maximum number of spots that are kept
+     * @return the maximum number of spots that are kept
+     */
+    public int getMaxNoOfSpots() { return maxNoOfSpots; }
+    /**
+     * The spots are kept to recreate the heat map e.g. after a resize.
+     * If more spots are added the oldest ones will be removed, they stay
+     * visible until the heat map has to be recreated. The default value
+     * is 100 000.
+     * @param MAX_NO_OF_SPOTS
+     */
+    public void setMaxNoOfSpots(final int MAX_NO_OF_SPOTS) {
+        maxNoOfSpots = Math.max(1, MAX_NO_OF_SPOTS);
+        while (spotList.size() > maxNoOfSpots) { spotList.pollFirst(); }
+    }
+
     /**
      * Returns the used color mapping with the gradient that is used
      * to visualize the data
@@ -182,6 +335,7 @@ public class HeatMap extends ImageView {
     public void setColorMapping(final ColorMapping COLOR_MAPPING) {
         colorMapping    = COLOR_MAPPING;
         mappingGradient = COLOR_MAPPING.getGradient();
+        updateColorLut();
         updateHeatMap();
     }
 
@@ -201,6 +355,7 @@ public class HeatMap extends ImageView {
      */
     public void setFadeColors(final boolean FADE_COLORS) {
         fadeColors = FADE_COLORS;
+        updateColorLut();
         updateHeatMap();
     }
 
@@ -279,44 +434,30 @@ public class HeatMap extends ImageView {
 
     /**
      * Create an image that contains a circle filled with a
-     * radial gradient from white to transparent
+     * radial gradient from white to transparent. The images are
+     * taken from the SpotKernelCache that is shared by all heat maps,
+     * the radius is quantized to SpotKernelCache.RADIUS_QUANTUM.
      * @param RADIUS
      * @return an image that contains a filled circle
      */
     public Image createSpotImage(final double RADIUS, final OpacityDistribution OPACITY_DISTRIBUTION) {
-        Double radius = RADIUS < 1 ? 1 : RADIUS;
-        if (spotImages.containsKey(OPACITY_DISTRIBUTION.name() + radius)) {
-            return spotImages.get(OPACITY_DISTRIBUTION.name() + radius);
-        }
-        Stop[] stops = new Stop[11];
-        for (int i = 0; i < 11; i++) {
-            stops[i] = new Stop(i * 0.1, Color.rgb(255, 255, 255, OPACITY_DISTRIBUTION.getDistribution()[i]));
-        }
+        return getSpotKernel(RADIUS, OPACITY_DISTRIBUTION).getImage();
+    }
 
-        int           size          = (int) (radius * 2);
-        WritableImage raster        = new WritableImage(size, size);
-        PixelWriter   pixelWriter   = raster.getPixelWriter();
-        double        maxDistFactor = 1 / radius;
-        Color         pixelColor;
-        for (int y = 0; y < size; y++) {
-            for (int x = 0; x < size; x++) {
-                double deltaX   = radius - x;
-                double deltaY   = radius - y;
-                double distance = Math.sqrt((deltaX * deltaX) + (deltaY * deltaY));
-                double fraction = maxDistFactor * distance;
-                for (int i = 0; i < 10; i++) {
-                    if (Double.compare(fraction, stops[i].getOffset()) >= 0 && Double.compare(fraction, stops[i + 1].getOffset()) <= 0) {
-                        pixelColor = (Color) Interpolator.LINEAR.interpolate(stops[i].getColor(), stops[i + 1].getColor(), (fraction - stops[i].getOffset()) / 0.1);
-                        pixelWriter.setColor(x, y, pixelColor);
-                        break;
-                    }
-                }
-            }
+    // Most spots use the same radius and distribution, so the last kernel is kept to avoid the cache lookup
+    private SpotKernel getSpotKernel(final double RADIUS, final OpacityDistribution OPACITY_DISTRIBUTION) {
+        if (null != lastKernel && Double.compare(RADIUS, lastKernelRadius) == 0 && OPACITY_DISTRIBUTION == lastKernel.getOpacityDistribution()) {
+            metrics.cacheHit();
+            return lastKernel;
         }
-        spotImages.put(OPACITY_DISTRIBUTION.name() + radius, raster);
-        return raster;
+        SpotKernel kernel = SpotKernelCache.get(RADIUS, OPACITY_DISTRIBUTION, metrics);
+        lastKernel       = kernel;
+        lastKernelRadius = RADIUS;
+        return kernel;
     }
 
+    public ChartMetrics getMetrics() { return metrics; }
+
     /**
      * Updates each spot in the monochrome map to the given opacity gradient
      * which could be useful to reduce oversmoothing
@@ -324,9 +465,10 @@ public class HeatMap extends ImageView {
      */
     public void updateMonochromeMap(final OpacityDistribution OPACITY_GRADIENT) {
         ctx.clearRect(0, 0, monochrome.getWidth(), monochrome.getHeight());
+        resetDensity();
         spotList.forEach(spot -> {
             spot.setOpacityDistribution(OPACITY_GRADIENT);
-            ctx.drawImage(createSpotImage(spot.getRadius(), spot.getOpacityDistribution()), spot.getX() - spot.getRadius() * 0.5, spot.getY() - spot.getRadius() * 0.5);
+            drawSpot(createSpotImage(spot.getRadius(), spot.getOpacityDistribution()), spot.getX() - spot.getRadius() * 0.5, spot.getY() - spot.getRadius() * 0.5, spot.getTimestamp());
         });
         updateHeatMap();
     }
@@ -334,31 +476,368 @@ public class HeatMap extends ImageView {
     /**
      * Recreates the heatmap based on the current monochrome map.
      * Using this approach makes it easy to change the used color
-     * mapping.
+     * mapping. The CANVAS engine updates immediately, the density
+     * engines recolor and publish all changes once on the next pulse.
      */
     private void updateHeatMap() {
-        monochrome.snapshot(SNAPSHOT_PARAMETERS, monochromeImage);
+        if (Engine.CANVAS == engine) {
+            renderHeatMap();
+        } else if (!publishPending) {
+            publishPending = true;
+            publishTimer.start();
+        }
+    }
+
+    private void renderHeatMap() {
+        metrics.startRedraw();
+        try {
+            if (Engine.CANVAS == engine) {
+                recolorHeatMap();
+            } else {
+                if (Engine.KDE == engine && countsChanged) { estimateDensity(); }
+                recolorDensity();
+            }
+            metrics.addItemsDrawn(spotList.size());
+        } finally {
+            metrics.endRedraw();
+        }
+    }
+
+    /**
+     * The alpha channel of the monochrome map is used as index into the color lookup
+     * table, so the whole image is colorized with one bulk read, a table lookup per
+     * pixel and one bulk write.
+     */
+    private void recolorHeatMap() {
+        monochromeImage = monochrome.snapshot(SNAPSHOT_PARAMETERS, monochromeImage);
 
         int width  = monochromeImage.widthProperty().intValue();
         int height = monochromeImage.heightProperty().intValue();
-        heatMap    = new WritableImage(width, height);
-
-        Color       colorFromMonoChromeImage;
-        double      brightness;
-        Color       mappedColor;
-        PixelWriter pixelWriter = heatMap.getPixelWriter();
-        PixelReader pixelReader = monochromeImage.getPixelReader();
-        for (int y = 0 ; y < height ; y++) {
-            for (int x = 0 ; x < width ; x++) {
-                colorFromMonoChromeImage = pixelReader.getColor(x, y);
-                brightness               = colorFromMonoChromeImage.getOpacity();
-                mappedColor              = Helper.getColorAt(mappingGradient, brightness);
-                pixelWriter.setColor(x, y, fadeColors ? Color.color(mappedColor.getRed(), mappedColor.getGreen(), mappedColor.getBlue(), brightness) : mappedColor);
+        int size   = width * height;
+        if (null == heatMap || heatMap.getWidth() != width || heatMap.getHeight() != height) {
+            heatMap = new WritableImage(width, height);
+        }
+        if (monochromePixels.length != size) {
+            monochromePixels = new int[size];
+            heatMapPixels    = new int[size];
+        }
+
+        monochromeImage.getPixelReader().getPixels(0, 0, width, height, PIXEL_FORMAT, monochromePixels, 0, width);
+        final int[] lut    = colorLut;
+        final int[] source = monochromePixels;
+        final int[] target = heatMapPixels;
+        RowBands.process(height, width, (fromRow, toRow) -> {
+            for (int i = fromRow * width, end = toRow * width ; i < end ; i++) { target[i] = lut[source[i] >>> 24]; }
+        });
+        heatMap.getPixelWriter().setPixels(0, 0, width, height, PIXEL_FORMAT, heatMapPixels, 0, width);
+        setImage(heatMap);
+    }
+
+    // One entry per alpha value of the monochrome map, with fading the alpha of the entry is the alpha of the monochrome map
+    private void updateColorLut() {
+        colorLut = Helper.createColorLookupTable(mappingGradient, LUT_SIZE);
+        if (fadeColors) {
+            for (int i = 0 ; i < LUT_SIZE ; i++) { colorLut[i] = (i << 24) | (colorLut[i] & 0x00FFFFFF); }
+        }
+        markAllDirty();
+    }
+
+    private void addToSpotList(final HeatMapSpot SPOT) {
+        spotList.add(SPOT);
+        if (spotList.size() > maxNoOfSpots) { spotList.pollFirst(); }
+    }
+
+    private void drawSpot(final Image SPOT_IMAGE, final double X, final double Y, final long TIMESTAMP) {
+        if (Engine.CANVAS == engine) {
+            ctx.drawImage(SPOT_IMAGE, X, Y);
+            return;
+        }
+        if (Engine.KDE == engine) {
+            addToCounts((int) Math.round(X + SPOT_IMAGE.getWidth() * 0.5), (int) Math.round(Y + SPOT_IMAGE.getHeight() * 0.5), getDecayWeight(TIMESTAMP));
+        } else {
+            addToDensity(SPOT_IMAGE, (int) Math.round(X), (int) Math.round(Y), getDecayWeight(TIMESTAMP));
+        }
+        if (halfLife > 0) { startDecayTimer(); }
+    }
+
+    private void addToCounts(final int X, final int Y, final float WEIGHT) {
+        if (X < 0 || Y < 0 || X >= densityWidth || Y >= densityHeight) { return; }
+        counts[Y * densityWidth + X] += WEIGHT;
+        countsChanged = true;
+    }
+
+    /**
+     * Blurs the counts with NO_OF_BLUR_PASSES box blurs per axis which approximates a
+     * gaussian with the sigma of the current spot kernel. The running sums make the costs
+     * independent of the radius. The result is scaled with the mass (sum of the depths) of
+     * the spot kernel so a single spot looks like a spot of the DENSITY_BUFFER engine.
+     */
+    private void estimateDensity() {
+        final int        width  = densityWidth;
+        final int        height = densityHeight;
+        final SpotKernel kernel = getSpotKernel(radius, opacityDistribution);
+        final int[]      radii  = getBoxRadii(kernel.getSigma(), NO_OF_BLUR_PASSES);
+
+        float[] source = counts;
+        float[] target = blurBuffer;
+        for (int radius : radii) {
+            boxBlurH(source, target, width, height, radius);
+            source = target;
+            target = target == blurBuffer ? density : blurBuffer;
+        }
+        for (int radius : radii) {
+            boxBlurV(source, target, width, height, radius);
+            source = target;
+            target = target == blurBuffer ? density : blurBuffer;
+        }
+        if (source != density) { System.arraycopy(source, 0, density, 0, density.length); }
+
+        final float mass = (float) kernel.getMass();
+        float       max  = 0;
+        for (int i = 0 ; i < density.length ; i++) {
+            // Running sums can leave tiny negative values
+            float value = Math.max(0, density[i] * mass);
+            density[i] = value;
+            if (value > max) { max = value; }
+        }
+        maxDensity    = max;
+        countsChanged = false;
+        markAllDirty();
+    }
+
+    // Radii of box blurs that approximate a gaussian with the given sigma when applied one after another
+    private static int[] getBoxRadii(final double SIGMA, final int PASSES) {
+        final double idealWidth = Math.sqrt((12 * SIGMA * SIGMA / PASSES) + 1);
+        int          lowerWidth = (int) Math.floor(idealWidth);
+        if (lowerWidth % 2 == 0) { lowerWidth--; }
+        final int    upperWidth = lowerWidth + 2;
+        final double idealLower = (12 * SIGMA * SIGMA - PASSES * lowerWidth * lowerWidth - 4 * PASSES * lowerWidth - 3 * PASSES) / (-4.0 * lowerWidth - 4);
+        final long   noOfLower  = Math.round(idealLower);
+        final int[]  radii      = new int[PASSES];
+        for (int i = 0 ; i < PASSES ; i++) { radii[i] = ((i < noOfLower ? lowerWidth : upperWidth) - 1) / 2; }
+        return radii;
+    }
+
+    // Rows are independent, so they are blurred in parallel bands
+    private static void boxBlurH(final float[] SOURCE, final float[] TARGET, final int WIDTH, final int HEIGHT, final int RADIUS) {
+        final float scale = 1f / (2 * RADIUS + 1);
+        RowBands.process(HEIGHT, WIDTH, (fromRow, toRow) -> {
+            for (int y = fromRow ; y < toRow ; y++) {
+                final int row = y * WIDTH;
+                float     sum = 0;
+                for (int x = 0, n = Math.min(RADIUS, WIDTH) ; x < n ; x++) { sum += SOURCE[row + x]; }
+                for (int x = 0 ; x < WIDTH ; x++) {
+                    if (x + RADIUS < WIDTH) { sum += SOURCE[row + x + RADIUS]; }
+                    TARGET[row + x] = sum * scale;
+                    if (x - RADIUS >= 0) { sum -= SOURCE[row + x - RADIUS]; }
+                }
             }
+        });
+    }
+
+    // Columns are independent, so they are blurred in parallel bands of columns
+    private static void boxBlurV(final float[] SOURCE, final float[] TARGET, final int WIDTH, final int HEIGHT, final int RADIUS) {
+        final float scale = 1f / (2 * RADIUS + 1);
+        RowBands.process(WIDTH, HEIGHT, (fromColumn, toColumn) -> {
+            for (int x = fromColumn ; x < toColumn ; x++) {
+                float sum = 0;
+                for (int y = 0, n = Math.min(RADIUS, HEIGHT) ; y < n ; y++) { sum += SOURCE[y * WIDTH + x]; }
+                for (int y = 0 ; y < HEIGHT ; y++) {
+                    if (y + RADIUS < HEIGHT) { sum += SOURCE[(y + RADIUS) * WIDTH + x]; }
+                    TARGET[y * WIDTH + x] = sum * scale;
+                    if (y - RADIUS >= 0) { sum -= SOURCE[(y - RADIUS) * WIDTH + x]; }
+                }
+            }
+        });
+    }
+
+    // Adds the weighted depth values of the spot image to the density buffer and extends the dirty region
+    private void addToDensity(final Image SPOT_IMAGE, final int X, final int Y, final float WEIGHT) {
+        final float[] kernel       = getKernel(SPOT_IMAGE);
+        final int     kernelWidth  = (int) SPOT_IMAGE.getWidth();
+        final int     kernelHeight = (int) SPOT_IMAGE.getHeight();
+        final int     minX         = Math.max(0, X);
+        final int     minY         = Math.max(0, Y);
+        final int     maxX         = Math.min(densityWidth, X + kernelWidth);
+        final int     maxY         = Math.min(densityHeight, Y + kernelHeight);
+        if (minX >= maxX || minY >= maxY) { return; }
+
+        float max = maxDensity;
+        for (int y = minY ; y < maxY ; y++) {
+            int densityIndex = y * densityWidth + minX;
+            int kernelIndex  = (y - Y) * kernelWidth + (minX - X);
+            for (int x = minX ; x < maxX ; x++) {
+                float value = density[densityIndex] += kernel[kernelIndex++] * WEIGHT;
+                if (value > max) { max = value; }
+                densityIndex++;
+            }
+        }
+        maxDensity = max;
+        dirtyMinX = Math.min(dirtyMinX, minX);
+        dirtyMinY = Math.min(dirtyMinY, minY);
+        dirtyMaxX = Math.max(dirtyMaxX, maxX);
+        dirtyMaxY = Math.max(dirtyMaxY, maxY);
+    }
+
+    // The depth values of the alpha channel of the spot image, for the spot kernel it is the kernel depth
+    private float[] getKernel(final Image SPOT_IMAGE) {
+        if (null != lastKernel && SPOT_IMAGE == lastKernel.getImage()) { return lastKernel.getDepth(); }
+        if (SPOT_IMAGE != lastCustomImage) {
+            int   width  = (int) SPOT_IMAGE.getWidth();
+            int   height = (int) SPOT_IMAGE.getHeight();
+            int[] pixels = new int[width * height];
+            SPOT_IMAGE.getPixelReader().getPixels(0, 0, width, height, PIXEL_FORMAT, pixels, 0, width);
+            float[] alpha = new float[pixels.length];
+            for (int i = 0 ; i < pixels.length ; i++) { alpha[i] = (pixels[i] >>> 24) / 255f; }
+            lastCustomImage = SPOT_IMAGE;
+            lastCustomDepth = SpotKernel.toDepth(alpha);
+        }
+        return lastCustomDepth;
+    }
+
+    /**
+     * Colorizes the dirty region of the density buffer. The density d is the sum of the
+     * depths of the spots and is mapped to the opacity 1 - e^-d, which is the opacity of
+     * the spots drawn over each other in the monochrome map of the CANVAS engine. The
+     * opacity is rounded to the entry of the color lookup table like the 8 bit alpha
+     * channel of the monochrome map.
+     */
+    private void recolorDensity() {
+        final int width  = densityWidth;
+        final int height = densityHeight;
+        if (width <= 0 || height <= 0) { return; }
+        if (null == heatMap || heatMap.getWidth() != width || heatMap.getHeight() != height) {
+            heatMap = new WritableImage(width, height);
+            markAllDirty();
+        }
+        if (heatMapPixels.length != width * height) {
+            heatMapPixels = new int[width * height];
+            markAllDirty();
         }
+
+        final int minX = Math.max(0, dirtyMinX);
+        final int minY = Math.max(0, dirtyMinY);
+        final int maxX = Math.min(width, dirtyMaxX);
+        final int maxY = Math.min(height, dirtyMaxY);
+        if (minX < maxX && minY < maxY) {
+            final int[]   lut      = colorLut;
+            final float[] values   = density;
+            final int[]   target   = heatMapPixels;
+            final int     maxIndex = LUT_SIZE - 1;
+            final float   scale    = getDecayScale(System.nanoTime());
+            RowBands.process(maxY - minY, maxX - minX, (fromRow, toRow) -> {
+                for (int y = minY + fromRow ; y < minY + toRow ; y++) {
+                    for (int i = y * width + minX, end = y * width + maxX ; i < end ; i++) {
+                        target[i] = lut[(int) ((1 - Math.exp(-values[i] * scale)) * maxIndex + 0.5)];
+                    }
+                }
+            });
+            heatMap.getPixelWriter().setPixels(minX, minY, maxX - minX, maxY - minY, PIXEL_FORMAT, heatMapPixels, minY * width + minX, width);
+        }
+        dirtyMinX = Integer.MAX_VALUE;
+        dirtyMinY = Integer.MAX_VALUE;
+        dirtyMaxX = Integer.MIN_VALUE;
+        dirtyMaxY = Integer.MIN_VALUE;
         setImage(heatMap);
     }
 
+    // Creates an empty density buffer with the size of the monochrome map
+    private void resetDensity() {
+        densityWidth  = monochrome.widthProperty().intValue();
+        densityHeight = monochrome.heightProperty().intValue();
+        final int size = densityWidth * densityHeight;
+        density       = Engine.CANVAS == engine ? new float[0] : clearedBuffer(density, size);
+        counts        = Engine.KDE    == engine ? clearedBuffer(counts, size) : new float[0];
+        blurBuffer    = Engine.KDE    == engine ? clearedBuffer(blurBuffer, size) : new float[0];
+        countsChanged = false;
+        maxDensity    = 0;
+        decayOrigin   = System.nanoTime();
+        markAllDirty();
+    }
+
+    private static float[] clearedBuffer(final float[] BUFFER, final int SIZE) {
+        if (BUFFER.length != SIZE) { return new float[SIZE]; }
+        Arrays.fill(BUFFER, 0f);
+        return BUFFER;
+    }
+
+    private void markAllDirty() {
+        dirtyMinX = 0;
+        dirtyMinY = 0;
+        dirtyMaxX = Integer.MAX_VALUE;
+        dirtyMaxY = Integer.MAX_VALUE;
+    }
+
+    // Recreates the monochrome map or density buffer from the spot list
+    private void redrawSpots() {
+        ctx.clearRect(0, 0, monochrome.getWidth(), monochrome.getHeight());
+        resetDensity();
+        if (0 == halfLife) { stopDecayTimer(); }
+        spotList.forEach(spot -> drawSpot(createSpotImage(spot.getRadius(), spot.getOpacityDistribution()), spot.getX() - spot.getRadius(), spot.getY() - spot.getRadius(), spot.getTimestamp()));
+        updateHeatMap();
+    }
+
+
+    // ******************** Decay *********************************************
+    /**
+     * Instead of multiplying every value of the density buffer with the decay
+     * factor on each update, new spots are added with the weight
+     * 2^((time - decayOrigin) / halfLife) and the displayed density is the
+     * stored density times 2^(-(now - decayOrigin) / halfLife). So fading
+     * only needs a recolor, the buffer itself is only renormalized every
+     * RENORMALIZE_HALF_LIVES half lives to keep the weights in float range.
+     */
+    private float getDecayWeight(final long TIMESTAMP) {
+        if (0 == halfLife) { return 1f; }
+        return (float) Math.pow(2, (TIMESTAMP - decayOrigin) / (halfLife * 1_000_000.0));
+    }
+
+    private float getDecayScale(final long NOW) {
+        if (0 == halfLife) { return 1f; }
+        return (float) Math.pow(2, -(NOW - decayOrigin) / (halfLife * 1_000_000.0));
+    }
+
+    private void decay(final long NOW) {
+        if (0 == halfLife || Engine.CANVAS == engine) {
+            stopDecayTimer();
+            return;
+        }
+        // Spots that contribute less than 2^-PRUNE_HALF_LIVES are not needed to recreate the map
+        final long maxAge = halfLife * 1_000_000L * PRUNE_HALF_LIVES;
+        while (!spotList.isEmpty() && NOW - spotList.peekFirst().getTimestamp() > maxAge) { spotList.pollFirst(); }
+
+        final float scale = getDecayScale(NOW);
+        if (maxDensity * scale < MIN_VISIBLE_DENSITY) {
+            // Everything faded out
+            Arrays.fill(density, 0f);
+            Arrays.fill(counts, 0f);
+            countsChanged = false;
+            maxDensity    = 0;
+            decayOrigin   = NOW;
+            stopDecayTimer();
+        } else if (NOW - decayOrigin > halfLife * 1_000_000L * RENORMALIZE_HALF_LIVES) {
+            for (int i = 0 ; i < density.length ; i++) { density[i] *= scale; }
+            for (int i = 0 ; i < counts.length ; i++) { counts[i] *= scale; }
+            maxDensity *= scale;
+            decayOrigin = NOW;
+        }
+        markAllDirty();
+        renderHeatMap();
+    }
+
+    private void startDecayTimer() {
+        if (decayTimerRunning) { return; }
+        decayTimerRunning = true;
+        lastDecayUpdate   = System.nanoTime();
+        decayTimer.start();
+    }
+
+    private void stopDecayTimer() {
+        if (!decayTimerRunning) { return; }
+        decayTimerRunning = false;
+        decayTimer.stop();
+    }
+
     private void resize() {
         double width  = getFitWidth();
         double height = getFitHeight();
@@ -368,7 +847,11 @@ public class HeatMap extends ImageView {
 
         if (width > 0 && height > 0) {
             monochromeImage = new WritableImage(monochrome.widthProperty().intValue(), monochrome.heightProperty().intValue());
-            updateHeatMap();
+            if (Engine.CANVAS == engine) {
+                updateHeatMap();
+            } else {
+                redrawSpots();
+            }
         }
     }
 }
@@ -19,10 +19,14 @@ package eu.hansolo.fx.charts.heatmap;
 import eu.hansolo.fx.charts.tools.ColorMapping;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.LongProperty;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.Property;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleLongProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.geometry.Dimension2D;
 
@@ -87,6 +91,16 @@ public class HeatMapBuilder<B extends HeatMapBuilder<B>> {
         return (B)this;
     }
 
+    public final B halfLife(final long MILLISECONDS) {
+        properties.put("halfLife", new SimpleLongProperty(MILLISECONDS));
+        return (B)this;
+    }
+
+    public final B maxNoOfSpots(final int MAX_NO_OF_SPOTS) {
+        properties.put("maxNoOfSpots", new SimpleIntegerProperty(MAX_NO_OF_SPOTS));
+        return (B)this;
+    }
+
     public final HeatMap build() {
         double              width               = 400;
         double              height              = 400;
@@ -117,6 +131,9 @@ public class HeatMapBuilder<B extends HeatMapBuilder<B>> {
                 opacityDistribution = ((ObjectProperty<OpacityDistribution>) properties.get(key)).get();
             }
         }
-        return new HeatMap(width,  height, colorMapping, spotRadius, fadeColors, heatMapOpacity, opacityDistribution);
+        final HeatMap CONTROL = new HeatMap(width,  height, colorMapping, spotRadius, fadeColors, heatMapOpacity, opacityDistribution);
+        if (properties.containsKey("halfLife")) { CONTROL.setHalfLife(((LongProperty) properties.get("halfLife")).get()); }
+        if (properties.containsKey("maxNoOfSpots")) { CONTROL.setMaxNoOfSpots(((IntegerProperty) properties.get("maxNoOfSpots")).get()); }
+        return CONTROL;
     }
 }
\ No newline at end of file
@@ -21,6 +21,7 @@ public class HeatMapSpot {
     private double              y;
     private double              radius;
     private OpacityDistribution opacityDistribution;
+    private long                timestamp;
 
 
     // ******************** Constructors **************************************
@@ -31,10 +32,14 @@ public class HeatMapSpot {
         this(X, Y, RADIUS, OpacityDistribution.CUSTOM);
     }
     public HeatMapSpot(final double X, final double Y, final double RADIUS, final OpacityDistribution OPACITY_GRADIENT) {
+        this(X, Y, RADIUS, OPACITY_GRADIENT, System.nanoTime());
+    }
+    public HeatMapSpot(final double X, final double Y, final double RADIUS, final OpacityDistribution OPACITY_GRADIENT, final long TIMESTAMP) {
         x                   = X;
         y                   = Y;
         radius              = RADIUS;
         opacityDistribution = OPACITY_GRADIENT;
+        timestamp           = TIMESTAMP;
     }
 
 
@@ -47,5 +52,8 @@ public class HeatMapSpot {
 
     public OpacityDistribution getOpacityDistribution() { return opacityDistribution; }
     public void setOpacityDistribution(final OpacityDistribution OPACITY_GRADIENT) { opacityDistribution = OPACITY_GRADIENT; }
+
+    // Time of creation in nanoseconds (System.nanoTime())
+    public long getTimestamp() { return timestamp; }
 }
 
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package eu.hansolo.fx.charts.heatmap;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+
+/**
+ * The kernel of a heat map spot, a circle with the given radius that fades
+ * out from the center according to the given opacity distribution.
+ * The alpha values are available as float array and as white image with the
+ * alpha values (used to draw spots on a canvas). The depth values -ln(1 - alpha)
+ * are used to accumulate spots in a density buffer, adding depths and mapping the
+ * sum d back with 1 - e^-d composites the spots like drawing them one over the other.
+ * The arrays have size x size entries (row by row). Mass (sum of all depth values)
+ * and sigma (standard deviation of the alpha values along one axis) describe the
+ * kernel for the KDE engine of the heat map.
+ */
+public class SpotKernel {
+    // Fully opaque pixels would have an infinite depth, the limit still maps to the last entry of a 256 color lookup table
+    public  static final float               MAX_ALPHA = 1f - 0.25f / 255f;
+    private        final double              radius;
+    private        final OpacityDistribution opacityDistribution;
+    private        final int                 size;
+    private        final float[]             alpha;
+    private        final float[]             depth;
+    private        final Image               image;
+    private              double              mass;
+    private              double              sigma;
+
+
+    // ******************** Constructors **************************************
+    public SpotKernel(final double RADIUS, final OpacityDistribution OPACITY_DISTRIBUTION) {
+        radius              = RADIUS < 1 ? 1 : RADIUS;
+        opacityDistribution = OPACITY_DISTRIBUTION;
+        size                = (int) (radius * 2);
+        alpha               = createAlpha();
+        depth               = toDepth(alpha);
+        image               = createImage();
+        calcMoments();
+    }
+
+
+    // ******************** Methods *******************************************
+    public double getRadius() { return radius; }
+
+    public OpacityDistribution getOpacityDistribution() { return opacityDistribution; }
+
+    public int getSize() { return size; }
+
+    // The returned array is shared, don't modify it
+    public float[] getAlpha() { return alpha; }
+
+    // The returned array is shared, don't modify it
+    public float[] getDepth() { return depth; }
+
+    public Image getImage() { return image; }
+
+    public double getMass() { return mass; }
+
+    public double getSigma() { return sigma; }
+
+    // The opacity is interpolated linear between the 11 values of the distribution at the distances 0, 0.1 ... 1.0 of the radius
+    private float[] createAlpha() {
+        double[] distribution  = opacityDistribution.getDistribution();
+        float[]  values        = new float[size * size];
+        double   maxDistFactor = 1 / radius;
+        for (int y = 0 ; y < size ; y++) {
+            for (int x = 0 ; x < size ; x++) {
+                double deltaX   = radius - x;
+                double deltaY   = radius - y;
+                double fraction = maxDistFactor * Math.sqrt((deltaX * deltaX) + (deltaY * deltaY));
+                if (fraction > 1) { continue; }
+                int    index    = Math.min(9, (int) (fraction * 10));
+                double t        = (fraction - index * 0.1) / 0.1;
+                values[y * size + x] = (float) (distribution[index] + (distribution[index + 1] - distribution[index]) * t);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Converts alpha values (0 - 1) to depth values -ln(1 - alpha), the sum of
+     * the depths of several layers is the depth of the layers composited with
+     * SRC_OVER, 1 - e^-(d1 + d2) = 1 - (1 - a1) * (1 - a2).
+     * @param ALPHA alpha values in the range of 0 - 1
+     * @return the depth values of the given alpha values
+     */
+    public static float[] toDepth(final float[] ALPHA) {
+        float[] values = new float[ALPHA.length];
+        for (int i = 0 ; i < ALPHA.length ; i++) { values[i] = (float) -Math.log(1 - Math.min(MAX_ALPHA, ALPHA[i])); }
+        return values;
+    }
+
+    // For a radial kernel the variance along one axis is half of the mean squared distance to the center
+    private void calcMoments() {
+        double sum         = 0;
+        double sumDistance = 0;
+        double sumDepth    = 0;
+        for (int y = 0 ; y < size ; y++) {
+            for (int x = 0 ; x < size ; x++) {
+                double value  = alpha[y * size + x];
+                double deltaX = radius - x;
+                double deltaY = radius - y;
+                sum         += value;
+                sumDistance += value * (deltaX * deltaX + deltaY * deltaY);
+                sumDepth    += depth[y * size + x];
+            }
+        }
+        mass  = sumDepth;
+        sigma = sum > 0 ? Math.max(0.5, Math.sqrt(sumDistance / (2 * sum))) : 0.5;
+    }
+
+    private Image createImage() {
+        int[] pixels = new int[size * size];
+        for (int i = 0 ; i < pixels.length ; i++) {
+            pixels[i] = (Math.round(alpha[i] * 255) << 24) | 0x00FFFFFF;
+        }
+        WritableImage raster = new WritableImage(size, size);
+        raster.getPixelWriter().setPixels(0, 0, size, size, PixelFormat.getIntArgbInstance(), pixels, 0, size);
+        return raster;
+    }
+}
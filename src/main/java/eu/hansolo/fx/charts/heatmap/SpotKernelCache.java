@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package eu.hansolo.fx.charts.heatmap;
+
+import eu.hansolo.fx.charts.tools.ChartMetrics;
+
+import java.util.Arrays;
+
+
+/**
+ * Cache of spot kernels that is shared by all heat maps (and so by all World
+ * instances). The radius is quantized to RADIUS_QUANTUM pixels, so spots with
+ * nearly the same radius share one kernel, and the cache keeps the
+ * MAX_SIZE most recently used kernels. The kernels are looked up with a
+ * primitive key made of the quantized radius and the opacity distribution,
+ * the cache is small enough to be searched linearly.
+ */
+public class SpotKernelCache {
+    public  static final int          MAX_SIZE       = 64;
+    public  static final double       RADIUS_QUANTUM = 0.5;
+    private static final long[]       KEYS           = new long[MAX_SIZE];
+    private static final SpotKernel[] KERNELS        = new SpotKernel[MAX_SIZE];
+    private static final long[]       LAST_USED      = new long[MAX_SIZE];
+    private static       int          size;
+    private static       long         useCounter;
+    private static       long         hitCount;
+    private static       long         missCount;
+
+
+    // ******************** Constructors **************************************
+    private SpotKernelCache() {}
+
+
+    // ******************** Methods *******************************************
+    public static double quantize(final double RADIUS) {
+        return Math.max(1, Math.round(RADIUS / RADIUS_QUANTUM) * RADIUS_QUANTUM);
+    }
+
+    public static SpotKernel get(final double RADIUS, final OpacityDistribution OPACITY_DISTRIBUTION) {
+        return get(RADIUS, OPACITY_DISTRIBUTION, null);
+    }
+
+    /**
+     * Returns the kernel for the given radius and opacity distribution and
+     * reports the lookup as cache hit or miss to the given metrics (if not null).
+     * The lookup and the report happen under the lock of the cache, so
+     * concurrent lookups of other heat maps can't be counted for this one.
+     */
+    public static synchronized SpotKernel get(final double RADIUS, final OpacityDistribution OPACITY_DISTRIBUTION, final ChartMetrics METRICS) {
+        final double radius = quantize(RADIUS);
+        final long   key    = Math.round(radius / RADIUS_QUANTUM) << 8 | OPACITY_DISTRIBUTION.ordinal();
+        int          eldest = 0;
+        useCounter++;
+        for (int i = 0 ; i < size ; i++) {
+            if (KEYS[i] == key) {
+                LAST_USED[i] = useCounter;
+                hitCount++;
+                if (null != METRICS) { METRICS.cacheHit(); }
+                return KERNELS[i];
+            }
+            if (LAST_USED[i] < LAST_USED[eldest]) { eldest = i; }
+        }
+
+        // Take a free slot or replace the least recently used kernel
+        final int  index  = size < MAX_SIZE ? size++ : eldest;
+        SpotKernel kernel = new SpotKernel(radius, OPACITY_DISTRIBUTION);
+        KEYS[index]      = key;
+        KERNELS[index]   = kernel;
+        LAST_USED[index] = useCounter;
+        missCount++;
+        if (null != METRICS) { METRICS.cacheMiss(); }
+        return kernel;
+    }
+
+    // Number of kernels that were taken from the cache and that had to be created
+    public static synchronized long getHitCount() { return hitCount; }
+    public static synchronized long getMissCount() { return missCount; }
+
+    public static synchronized void clear() {
+        Arrays.fill(KERNELS, null);
+        size = 0;
+    }
+}
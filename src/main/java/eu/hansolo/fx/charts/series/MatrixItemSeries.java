@@ -18,15 +18,32 @@ package eu.hansolo.fx.charts.series;
 
 import eu.hansolo.fx.charts.ChartType;
 import eu.hansolo.fx.charts.Symbol;
+import eu.hansolo.fx.charts.data.MatrixChartItem;
 import eu.hansolo.fx.charts.data.MatrixItem;
+import eu.hansolo.fx.charts.event.ItemEventListener;
+import javafx.beans.InvalidationListener;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 
 
 public class MatrixItemSeries<T extends MatrixItem> extends Series {
+    private static final int                  MAX_EMPTY_CELLS_PER_ITEM = 4;
+    private static final int                  MIN_DENSE_CELLS          = 1024;
+    private              T[]                  cells;
+    private              Map<Long, T>         sparseCells;
+    private              int                  indexMinX;
+    private              int                  indexMaxX;
+    private              int                  indexMinY;
+    private              int                  indexMaxY;
+    private              boolean              indexValid;
+    private              ItemEventListener    itemEventListener;
+    private              InvalidationListener positionListener;
+
 
     // ******************** Constructors **************************************
     public MatrixItemSeries() {
@@ -37,6 +54,26 @@ public class MatrixItemSeries<T extends MatrixItem> extends Series {
     }
     public MatrixItemSeries(final List<T> ITEMS, final ChartType TYPE, final String NAME) {
         super(ITEMS, TYPE, NAME, Symbol.NONE);
+        init();
+        registerListeners();
+    }
+
+
+    // ******************** Initialization ************************************
+    private void init() {
+        itemEventListener = e -> checkPosition((T) e.getItem());
+        positionListener  = o -> indexValid = false;
+    }
+
+    private void registerListeners() {
+        getItems().forEach(this::addPositionListener);
+        getItems().addListener((ListChangeListener<T>) change -> {
+            while (change.next()) {
+                change.getRemoved().forEach(this::removePositionListener);
+                change.getAddedSubList().forEach(this::addPositionListener);
+            }
+            indexValid = false;
+        });
     }
 
 
@@ -56,12 +93,128 @@ public class MatrixItemSeries<T extends MatrixItem> extends Series {
     public int getRangeY() { return getMaxY() - getMinY(); }
     public double getRangeZ() { return getMaxZ() - getMinZ(); }
 
+    /**
+     * Returns the first item of the list at the given cell or null.
+     * The items are indexed by their position, the index is rebuilt on the
+     * next access after the list changed or an item moved to another cell.
+     * @param X x of the cell
+     * @param Y y of the cell
+     * @return the first item of the list at the given cell or null
+     */
+    public T getItemAt(final int X, final int Y) {
+        T item = lookup(X, Y);
+        if (null != item && (item.getX() != X || item.getY() != Y)) {
+            // The item moved since the index was built
+            indexValid = false;
+            item = lookup(X, Y);
+        }
+        return item;
+    }
+
     public double getAt(final int X, final int Y) {
-        Optional<T> selectedItem = getItems().stream().filter(item -> item.getX() == X).filter(item -> item.getY() == Y).findFirst();
-        return selectedItem.isPresent() ? selectedItem.get().getZ() : 0;
+        T item = getItemAt(X, Y);
+        return null == item ? 0 : item.getZ();
     }
     public void setAt(final int X, final int Y, final double Z) {
-        Optional<T> selectedItem = getItems().stream().filter(item -> item.getX() == X).filter(item -> item.getY() == Y).findFirst();
-        if (selectedItem.isPresent()) { selectedItem.get().setZ(Z); }
+        T item = getItemAt(X, Y);
+        if (null != item) { item.setZ(Z); }
+    }
+
+    /**
+     * Sets the z values of the cells (FROM_X + i, Y) and fires one update
+     * event afterwards. Cells without an item are skipped.
+     * @param Y y of the row
+     * @param FROM_X x of the first cell
+     * @param VALUES z values of the cells
+     */
+    public void setRow(final int Y, final int FROM_X, final double... VALUES) {
+        for (int i = 0 ; i < VALUES.length ; i++) { setAt(FROM_X + i, Y, VALUES[i]); }
+        fireSeriesEvent(UPDATE_EVENT);
+    }
+
+    /**
+     * Sets the z values of a rectangular region of cells and fires one update
+     * event afterwards. The values are given row by row, the region has
+     * VALUES.length / WIDTH rows. Cells without an item are skipped.
+     * @param FROM_X x of the upper left cell
+     * @param FROM_Y y of the upper left cell
+     * @param WIDTH number of cells per row
+     * @param VALUES z values of the cells, row by row
+     */
+    public void setRegion(final int FROM_X, final int FROM_Y, final int WIDTH, final double... VALUES) {
+        if (WIDTH <= 0) { throw new IllegalArgumentException("Width must be positive"); }
+        final int rows = VALUES.length / WIDTH;
+        for (int row = 0 ; row < rows ; row++) {
+            for (int col = 0 ; col < WIDTH ; col++) { setAt(FROM_X + col, FROM_Y + row, VALUES[row * WIDTH + col]); }
+        }
+        fireSeriesEvent(UPDATE_EVENT);
     }
+
+    private T lookup(final int X, final int Y) {
+        if (!indexValid) { buildIndex(); }
+        if (null == cells) { return sparseCells.get(getKey(X, Y)); }
+        if (X < indexMinX || X > indexMaxX || Y < indexMinY || Y > indexMaxY) { return null; }
+        return cells[(Y - indexMinY) * (indexMaxX - indexMinX + 1) + (X - indexMinX)];
+    }
+
+    // MatrixChartItems fire one event for all their properties (e.g. z), so the index is only dropped if the item left its cell
+    private void checkPosition(final T ITEM) {
+        if (!indexValid) { return; }
+        final T item = lookup(ITEM.getX(), ITEM.getY());
+        if (null == item || item.getX() != ITEM.getX() || item.getY() != ITEM.getY()) { indexValid = false; }
+    }
+
+    private void addPositionListener(final T ITEM) {
+        if (ITEM instanceof MatrixChartItem) {
+            ((MatrixChartItem) ITEM).addItemEventListener(itemEventListener);
+        } else {
+            ITEM.xProperty().addListener(positionListener);
+            ITEM.yProperty().addListener(positionListener);
+        }
+    }
+
+    private void removePositionListener(final T ITEM) {
+        if (ITEM instanceof MatrixChartItem) {
+            ((MatrixChartItem) ITEM).removeItemEventListener(itemEventListener);
+        } else {
+            ITEM.xProperty().removeListener(positionListener);
+            ITEM.yProperty().removeListener(positionListener);
+        }
+    }
+
+    // Dense array of the cells between the min and max x and y, a hash map if most of these cells would be empty
+    private void buildIndex() {
+        final List<T> items = getItems();
+        indexMinX = Integer.MAX_VALUE;
+        indexMaxX = Integer.MIN_VALUE;
+        indexMinY = Integer.MAX_VALUE;
+        indexMaxY = Integer.MIN_VALUE;
+        for (T item : items) {
+            indexMinX = Math.min(indexMinX, item.getX());
+            indexMaxX = Math.max(indexMaxX, item.getX());
+            indexMinY = Math.min(indexMinY, item.getY());
+            indexMaxY = Math.max(indexMaxY, item.getY());
+        }
+        final long noOfCells = items.isEmpty() ? 0 : ((long) indexMaxX - indexMinX + 1) * ((long) indexMaxY - indexMinY + 1);
+        if (noOfCells <= Math.max(MIN_DENSE_CELLS, (long) MAX_EMPTY_CELLS_PER_ITEM * items.size())) {
+            cells       = createCells((int) noOfCells);
+            sparseCells = null;
+            final int width = indexMaxX - indexMinX + 1;
+            for (T item : items) {
+                int index = (item.getY() - indexMinY) * width + (item.getX() - indexMinX);
+                if (null == cells[index]) { cells[index] = item; }
+            }
+        } else {
+            cells       = null;
+            sparseCells = new HashMap<>(items.size() * 2);
+            for (T item : items) { sparseCells.putIfAbsent(getKey(item.getX(), item.getY()), item); }
+        }
+        indexValid = true;
+    }
+
+    // T extends MatrixItem, so a MatrixItem array is a valid T array after erasure
+    @SuppressWarnings("unchecked")
+    private static <T extends MatrixItem> T[] createCells(final int SIZE) { return (T[]) new MatrixItem[SIZE]; }
+
+    private static long getKey(final int X, final int Y) { return ((long) X << 32) | (Y & 0xFFFFFFFFL); }
 }
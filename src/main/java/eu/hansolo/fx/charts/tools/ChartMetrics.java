@@ -0,0 +1,292 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.charts.tools;
+
+import javafx.scene.Node;
+import jdk.jfr.EventType;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+
+/**
+ * Render metrics of a single chart.
+ * Every chart that supports metrics creates one instance with register() and
+ * wraps its redraw with startRedraw() and endRedraw(). In between it reports
+ * the number of drawn and skipped items and its cache hits and misses.
+ * Recording is disabled by default and can be switched on for all charts with
+ * setEnabled(true). While recording, a ChartRedrawEvent is committed for every
+ * redraw if the event is enabled in a running JFR recording. The jdk.jfr module
+ * is optional, without it (or with metrics disabled) no JFR class is loaded.
+ * All record methods have to be called on the thread that draws the chart
+ * (usually the FX application thread), the getters can be called on any thread.
+ */
+public class ChartMetrics {
+    public  static final    double[]                          HISTOGRAM_BOUNDS  = { 1, 2, 4, 8, 16, 33, 66 };
+    private static final    long[]                            BOUNDS_IN_NANOS   = new long[HISTOGRAM_BOUNDS.length];
+    private static final    boolean                           JFR_AVAILABLE     = isJfrAvailable();
+    private static final    List<WeakReference<ChartMetrics>> REGISTRY          = new ArrayList<>();
+    private static volatile boolean                           enabled           = false;
+    private        final    WeakReference<Object>             chartRef;
+    private        final    String                            defaultName;
+    private        volatile String                            name;
+    // Values of the current redraw
+    private                 int                               depth;
+    private                 boolean                           recording;
+    private                 long                              startNanos;
+    private                 Object                            event;
+    private                 long                              frameItemsDrawn;
+    private                 long                              frameItemsSkipped;
+    private                 long                              frameCacheHits;
+    private                 long                              frameCacheMisses;
+    // Accumulated values, guarded by this
+    private                 long                              redrawCount;
+    private                 long                              totalDrawTime;
+    private                 long                              maxDrawTime;
+    private                 long                              lastDrawTime;
+    private        final    long[]                            histogram;
+    private                 long                              itemsDrawn;
+    private                 long                              itemsSkipped;
+    private                 long                              cacheHits;
+    private                 long                              cacheMisses;
+
+    static {
+        for (int i = 0 ; i < HISTOGRAM_BOUNDS.length ; i++) { BOUNDS_IN_NANOS[i] = (long) (HISTOGRAM_BOUNDS[i] * 1_000_000); }
+    }
+
+
+    // ******************** Constructors **************************************
+    private ChartMetrics(final Object CHART) {
+        chartRef    = new WeakReference<>(CHART);
+        defaultName = CHART.getClass().getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(CHART));
+        histogram   = new long[HISTOGRAM_BOUNDS.length + 1];
+    }
+
+
+    // ******************** Static Methods ************************************
+    /**
+     * Creates the metrics for the given chart. The registry only keeps a weak
+     * reference to the metrics, means they will be removed together with the chart.
+     * @param CHART the chart that will report to the returned metrics
+     * @return the metrics of the given chart
+     */
+    public static ChartMetrics register(final Object CHART) {
+        ChartMetrics metrics = new ChartMetrics(CHART);
+        synchronized (REGISTRY) {
+            REGISTRY.removeIf(ref -> null == ref.get());
+            REGISTRY.add(new WeakReference<>(metrics));
+        }
+        return metrics;
+    }
+
+    /**
+     * @return the metrics of all charts that are still alive
+     */
+    public static List<ChartMetrics> getAll() {
+        List<ChartMetrics> all = new ArrayList<>();
+        synchronized (REGISTRY) {
+            Iterator<WeakReference<ChartMetrics>> iterator = REGISTRY.iterator();
+            while (iterator.hasNext()) {
+                ChartMetrics metrics = iterator.next().get();
+                if (null == metrics || null == metrics.chartRef.get()) {
+                    iterator.remove();
+                } else {
+                    all.add(metrics);
+                }
+            }
+        }
+        return all;
+    }
+
+    public static void resetAll() { getAll().forEach(ChartMetrics::reset); }
+
+    public static boolean isEnabled() { return enabled; }
+    public static void setEnabled(final boolean ENABLED) { enabled = ENABLED; }
+
+    // The charts module only requires jdk.jfr statically, it might not be part of the runtime
+    private static boolean isJfrAvailable() {
+        Module module = ChartMetrics.class.getModule();
+        return ModuleLayer.boot().findModule("jdk.jfr").map(module::canRead).orElse(false);
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * @return the name set with setName(), the id of the chart if it is a node with an id or the class name plus identity hash code
+     */
+    public String getName() {
+        if (null != name) { return name; }
+        Object chart = chartRef.get();
+        if (chart instanceof Node && null != ((Node) chart).getId()) { return ((Node) chart).getId(); }
+        return defaultName;
+    }
+    public void setName(final String NAME) { name = NAME; }
+
+    public void startRedraw() {
+        if (depth++ > 0) { return; }
+        recording = enabled;
+        if (!recording) { return; }
+        frameItemsDrawn   = 0;
+        frameItemsSkipped = 0;
+        frameCacheHits    = 0;
+        frameCacheMisses  = 0;
+        if (JFR_AVAILABLE) { event = RedrawEvents.begin(); }
+        startNanos = System.nanoTime();
+    }
+
+    public void endRedraw() {
+        if (depth == 0 || --depth > 0) { return; }
+        if (!recording) { return; }
+        recording = false;
+        long drawTime = System.nanoTime() - startNanos;
+
+        if (null != event) {
+            RedrawEvents.commit(event, this);
+            event = null;
+        }
+
+        int bucket = 0;
+        while (bucket < BOUNDS_IN_NANOS.length && drawTime >= BOUNDS_IN_NANOS[bucket]) { bucket++; }
+        synchronized (this) {
+            redrawCount++;
+            totalDrawTime += drawTime;
+            lastDrawTime   = drawTime;
+            maxDrawTime    = Math.max(maxDrawTime, drawTime);
+            histogram[bucket]++;
+            itemsDrawn    += frameItemsDrawn;
+            itemsSkipped  += frameItemsSkipped;
+            cacheHits     += frameCacheHits;
+            cacheMisses   += frameCacheMisses;
+        }
+    }
+
+    // Values that are reported outside of a redraw (e.g. cache lookups while adding data) are added to the totals directly
+    public void addItemsDrawn(final long COUNT) {
+        if (recording) {
+            frameItemsDrawn += COUNT;
+        } else if (enabled) {
+            synchronized (this) { itemsDrawn += COUNT; }
+        }
+    }
+
+    public void addItemsSkipped(final long COUNT) {
+        if (recording) {
+            frameItemsSkipped += COUNT;
+        } else if (enabled) {
+            synchronized (this) { itemsSkipped += COUNT; }
+        }
+    }
+
+    public void addCacheHits(final long COUNT) {
+        if (recording) {
+            frameCacheHits += COUNT;
+        } else if (enabled) {
+            synchronized (this) { cacheHits += COUNT; }
+        }
+    }
+    public void cacheHit() { addCacheHits(1); }
+
+    public void addCacheMisses(final long COUNT) {
+        if (recording) {
+            frameCacheMisses += COUNT;
+        } else if (enabled) {
+            synchronized (this) { cacheMisses += COUNT; }
+        }
+    }
+    public void cacheMiss() { addCacheMisses(1); }
+
+    public synchronized long getRedrawCount() { return redrawCount; }
+
+    // Draw times are in nanoseconds
+    public synchronized long getTotalDrawTime() { return totalDrawTime; }
+    public synchronized long getLastDrawTime() { return lastDrawTime; }
+    public synchronized long getMaxDrawTime() { return maxDrawTime; }
+    public synchronized double getMeanDrawTime() { return 0 == redrawCount ? 0 : (double) totalDrawTime / redrawCount; }
+
+    /**
+     * Bucket i contains the number of redraws that took less than HISTOGRAM_BOUNDS[i]
+     * milliseconds (and at least HISTOGRAM_BOUNDS[i - 1]), the last bucket contains
+     * all redraws that took longer than the last bound.
+     * @return a copy of the draw time histogram
+     */
+    public synchronized long[] getDrawTimeHistogram() { return histogram.clone(); }
+
+    public synchronized long getItemsDrawn() { return itemsDrawn; }
+    public synchronized long getItemsSkipped() { return itemsSkipped; }
+
+    public synchronized long getCacheHits() { return cacheHits; }
+    public synchronized long getCacheMisses() { return cacheMisses; }
+    public synchronized double getCacheHitRate() {
+        long total = cacheHits + cacheMisses;
+        return 0 == total ? 0 : (double) cacheHits / total;
+    }
+
+    public synchronized void reset() {
+        redrawCount   = 0;
+        totalDrawTime = 0;
+        lastDrawTime  = 0;
+        maxDrawTime   = 0;
+        itemsDrawn    = 0;
+        itemsSkipped  = 0;
+        cacheHits     = 0;
+        cacheMisses   = 0;
+        for (int i = 0 ; i < histogram.length ; i++) { histogram[i] = 0; }
+    }
+
+    @Override public synchronized String toString() {
+        return new StringBuilder().append("{")
+                                  .append("\"name\":\"").append(getName()).append("\",")
+                                  .append("\"redraws\":").append(redrawCount).append(",")
+                                  .append("\"mean_ms\":").append(getMeanDrawTime() / 1_000_000).append(",")
+                                  .append("\"max_ms\":").append(maxDrawTime / 1_000_000.0).append(",")
+                                  .append("\"items_drawn\":").append(itemsDrawn).append(",")
+                                  .append("\"items_skipped\":").append(itemsSkipped).append(",")
+                                  .append("\"cache_hit_rate\":").append(getCacheHitRate())
+                                  .append("}")
+                                  .toString();
+    }
+
+
+    // ******************** Inner Classes *************************************
+    // Only loaded if jdk.jfr is available, keeps all references to jdk.jfr out of ChartMetrics
+    private static final class RedrawEvents {
+        private static final EventType TYPE = EventType.getEventType(ChartRedrawEvent.class);
+
+        // Returns the begun event or null if the event is not enabled in a running recording
+        static Object begin() {
+            if (!TYPE.isEnabled()) { return null; }
+            ChartRedrawEvent event = new ChartRedrawEvent();
+            event.begin();
+            return event;
+        }
+
+        static void commit(final Object EVENT, final ChartMetrics METRICS) {
+            ChartRedrawEvent event = (ChartRedrawEvent) EVENT;
+            event.end();
+            if (event.shouldCommit()) {
+                event.chart        = METRICS.getName();
+                event.itemsDrawn   = METRICS.frameItemsDrawn;
+                event.itemsSkipped = METRICS.frameItemsSkipped;
+                event.cacheHits    = METRICS.frameCacheHits;
+                event.cacheMisses  = METRICS.frameCacheMisses;
+                event.commit();
+            }
+        }
+    }
+}
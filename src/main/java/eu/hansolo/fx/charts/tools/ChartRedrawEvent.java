@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.charts.tools;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+
+/**
+ * JFR event that is committed for every redraw of a chart that uses ChartMetrics
+ * while the metrics are enabled.
+ * The event duration is the draw time, the chart name can be set with
+ * ChartMetrics.setName() to attribute slow frames to a specific chart.
+ */
+@Name("eu.hansolo.fx.charts.ChartRedraw")
+@Label("Chart Redraw")
+@Category({ "JavaFX", "Charts" })
+@Description("Redraw of a chart")
+@StackTrace(false)
+public class ChartRedrawEvent extends Event {
+    @Label("Chart")
+    public String chart;
+
+    @Label("Items Drawn")
+    public long   itemsDrawn;
+
+    @Label("Items Skipped")
+    public long   itemsSkipped;
+
+    @Label("Cache Hits")
+    public long   cacheHits;
+
+    @Label("Cache Misses")
+    public long   cacheMisses;
+}
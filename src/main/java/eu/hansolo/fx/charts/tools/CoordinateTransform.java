@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.charts.tools;
+
+import eu.hansolo.fx.charts.Axis;
+import eu.hansolo.fx.charts.AxisType;
+
+
+/**
+ * Transforms values of an x/y axis pair into pixel coordinates.
+ * Linear, text and date (epoch seconds) axes are mapped linearly, logarithmic
+ * axes are mapped on log10 of the value. The y axis grows upwards, means the
+ * lower bound is mapped to OFFSET + LENGTH and the upper bound to OFFSET.
+ * The bulk methods work on primitive arrays and contain no branches in their
+ * loops so that the JIT can unroll and vectorize them.
+ */
+public class CoordinateTransform {
+    private AxisType typeX;
+    private boolean  logX;
+    private double   originX;
+    private double   scaleX;
+    private double   offsetX;
+    private AxisType typeY;
+    private boolean  logY;
+    private double   originY;
+    private double   scaleY;
+    private double   baseY;
+
+
+    // ******************** Constructors **************************************
+    public CoordinateTransform() {
+        setX(AxisType.LINEAR, 0, 1, 0, 1);
+        setY(AxisType.LINEAR, 0, 1, 0, 1);
+    }
+
+
+    // ******************** Methods *******************************************
+    public AxisType getTypeX() { return typeX; }
+    public AxisType getTypeY() { return typeY; }
+
+    public double getScaleX() { return scaleX; }
+    public double getScaleY() { return scaleY; }
+
+    public void setX(final Axis AXIS, final double LENGTH) { setX(AXIS.getType(), AXIS.getMinValue(), AXIS.getMaxValue(), 0, LENGTH); }
+    public void setX(final AxisType TYPE, final double LOWER_BOUND, final double UPPER_BOUND, final double LENGTH) { setX(TYPE, LOWER_BOUND, UPPER_BOUND, 0, LENGTH); }
+    public void setX(final AxisType TYPE, final double LOWER_BOUND, final double UPPER_BOUND, final double OFFSET, final double LENGTH) {
+        typeX   = TYPE;
+        logX    = AxisType.LOGARITHMIC == TYPE;
+        originX = logX ? Math.log10(LOWER_BOUND) : LOWER_BOUND;
+        scaleX  = LENGTH / ((logX ? Math.log10(UPPER_BOUND) : UPPER_BOUND) - originX);
+        offsetX = OFFSET;
+    }
+
+    public void setY(final Axis AXIS, final double LENGTH) { setY(AXIS.getType(), AXIS.getMinValue(), AXIS.getMaxValue(), 0, LENGTH); }
+    public void setY(final AxisType TYPE, final double LOWER_BOUND, final double UPPER_BOUND, final double LENGTH) { setY(TYPE, LOWER_BOUND, UPPER_BOUND, 0, LENGTH); }
+    public void setY(final AxisType TYPE, final double LOWER_BOUND, final double UPPER_BOUND, final double OFFSET, final double LENGTH) {
+        typeY   = TYPE;
+        logY    = AxisType.LOGARITHMIC == TYPE;
+        originY = logY ? Math.log10(LOWER_BOUND) : LOWER_BOUND;
+        scaleY  = LENGTH / ((logY ? Math.log10(UPPER_BOUND) : UPPER_BOUND) - originY);
+        baseY   = OFFSET + LENGTH;
+    }
+
+    public double toPixelX(final double VALUE) { return offsetX + ((logX ? Math.log10(VALUE) : VALUE) - originX) * scaleX; }
+    public double toPixelY(final double VALUE) { return baseY - ((logY ? Math.log10(VALUE) : VALUE) - originY) * scaleY; }
+
+    public double toValueX(final double PIXEL) {
+        final double value = (PIXEL - offsetX) / scaleX + originX;
+        return logX ? Math.pow(10, value) : value;
+    }
+    public double toValueY(final double PIXEL) {
+        final double value = (baseY - PIXEL) / scaleY + originY;
+        return logY ? Math.pow(10, value) : value;
+    }
+
+    /**
+     * Transforms the x values IN[FROM] ... IN[TO - 1] into OUT[FROM] ... OUT[TO - 1].
+     * IN and OUT may be the same array.
+     */
+    public void transformX(final double[] IN, final double[] OUT, final int FROM, final int TO) {
+        final double origin = originX;
+        final double scale  = scaleX;
+        final double offset = offsetX;
+        if (logX) {
+            for (int i = FROM ; i < TO ; i++) { OUT[i] = offset + (Math.log10(IN[i]) - origin) * scale; }
+        } else {
+            final double shift = offset - origin * scale;
+            for (int i = FROM ; i < TO ; i++) { OUT[i] = IN[i] * scale + shift; }
+        }
+    }
+
+    /**
+     * Transforms the y values IN[FROM] ... IN[TO - 1] into OUT[FROM] ... OUT[TO - 1].
+     * IN and OUT may be the same array.
+     */
+    public void transformY(final double[] IN, final double[] OUT, final int FROM, final int TO) {
+        final double origin = originY;
+        final double scale  = scaleY;
+        final double base   = baseY;
+        if (logY) {
+            for (int i = FROM ; i < TO ; i++) { OUT[i] = base - (Math.log10(IN[i]) - origin) * scale; }
+        } else {
+            final double shift = base + origin * scale;
+            for (int i = FROM ; i < TO ; i++) { OUT[i] = shift - IN[i] * scale; }
+        }
+    }
+
+    /**
+     * Transforms the interleaved points (x0, y0, x1, y1, ...) with the indices FROM ... TO - 1,
+     * means the array elements IN[2 * FROM] ... IN[2 * TO - 1], into the same elements of OUT.
+     * IN and OUT may be the same array.
+     */
+    public void transform(final double[] IN, final double[] OUT, final int FROM, final int TO) {
+        final int start = 2 * FROM;
+        final int end   = 2 * TO;
+        if (logX || logY) {
+            for (int i = start ; i < end ; i += 2) {
+                OUT[i]     = toPixelX(IN[i]);
+                OUT[i + 1] = toPixelY(IN[i + 1]);
+            }
+        } else {
+            final double scaleX = this.scaleX;
+            final double scaleY = this.scaleY;
+            final double shiftX = offsetX - originX * scaleX;
+            final double shiftY = baseY + originY * scaleY;
+            for (int i = start ; i < end ; i += 2) {
+                OUT[i]     = IN[i] * scaleX + shiftX;
+                OUT[i + 1] = shiftY - IN[i + 1] * scaleY;
+            }
+        }
+    }
+}
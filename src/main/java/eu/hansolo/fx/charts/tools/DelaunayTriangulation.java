@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.charts.tools;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+
+/**
+ * Delaunay triangulation of a list of points (Bowyer Watson).
+ * The points are inserted one by one into a triangle that contains all of
+ * them, every insert removes the triangles whose circumcircle contains the
+ * new point and connects the point to the border of the resulting hole.
+ * Duplicate points are only inserted once, the triangles refer to the
+ * index of the points in the given list.
+ */
+public class DelaunayTriangulation {
+    private static final double SUPER_TRIANGLE_SCALE = 1_000;
+    private        final int[]  triangles;
+
+
+    // ******************** Constructors **************************************
+    public DelaunayTriangulation(final List<? extends Point> POINTS) {
+        this(POINTS.stream().mapToDouble(Point::getX).toArray(), POINTS.stream().mapToDouble(Point::getY).toArray());
+    }
+    /**
+     * @param XS x coordinates of the points
+     * @param YS y coordinates of the points, same length as XS
+     */
+    public DelaunayTriangulation(final double[] XS, final double[] YS) {
+        final int      noOfPoints = XS.length;
+        final double[] xs         = Arrays.copyOf(XS, noOfPoints + 3);
+        final double[] ys         = Arrays.copyOf(YS, noOfPoints + 3);
+        double minX = Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE;
+        double maxY = -Double.MAX_VALUE;
+        for (int i = 0 ; i < noOfPoints ; i++) {
+            minX  = Math.min(minX, xs[i]);
+            minY  = Math.min(minY, ys[i]);
+            maxX  = Math.max(maxX, xs[i]);
+            maxY  = Math.max(maxY, ys[i]);
+        }
+        if (noOfPoints < 3) {
+            triangles = new int[0];
+            return;
+        }
+
+        // Triangle that contains all points, its corners are removed at the end
+        final double delta   = Math.max(1, Math.max(maxX - minX, maxY - minY)) * SUPER_TRIANGLE_SCALE;
+        final double centerX = (minX + maxX) * 0.5;
+        final double centerY = (minY + maxY) * 0.5;
+        xs[noOfPoints]     = centerX - delta;
+        ys[noOfPoints]     = centerY - delta;
+        xs[noOfPoints + 1] = centerX;
+        ys[noOfPoints + 1] = centerY + delta;
+        xs[noOfPoints + 2] = centerX + delta;
+        ys[noOfPoints + 2] = centerY - delta;
+
+        final List<Triangle> triangulation = new ArrayList<>(2 * noOfPoints + 1);
+        triangulation.add(new Triangle(noOfPoints, noOfPoints + 1, noOfPoints + 2, xs, ys));
+
+        // Inserting the points sorted by x makes it easy to skip duplicates
+        final Integer[] order = new Integer[noOfPoints];
+        for (int i = 0 ; i < noOfPoints ; i++) { order[i] = i; }
+        Arrays.sort(order, Comparator.<Integer>comparingDouble(i -> xs[i]).thenComparingDouble(i -> ys[i]));
+
+        final List<int[]> edges = new ArrayList<>();
+        int last = -1;
+        for (int index : order) {
+            if (last >= 0 && Double.compare(xs[index], xs[last]) == 0 && Double.compare(ys[index], ys[last]) == 0) { continue; }
+            last = index;
+
+            // Remove all triangles whose circumcircle contains the point and keep the edges that are not shared between them
+            edges.clear();
+            for (int i = triangulation.size() - 1 ; i >= 0 ; i--) {
+                Triangle triangle = triangulation.get(i);
+                if (!triangle.isInCircumcircle(xs[index], ys[index])) { continue; }
+                addEdge(edges, triangle.a, triangle.b);
+                addEdge(edges, triangle.b, triangle.c);
+                addEdge(edges, triangle.c, triangle.a);
+                Triangle lastTriangle = triangulation.remove(triangulation.size() - 1);
+                if (i < triangulation.size()) { triangulation.set(i, lastTriangle); }
+            }
+            for (int[] edge : edges) { triangulation.add(new Triangle(edge[0], edge[1], index, xs, ys)); }
+        }
+
+        triangulation.removeIf(triangle -> triangle.a >= noOfPoints || triangle.b >= noOfPoints || triangle.c >= noOfPoints);
+        triangles = new int[triangulation.size() * 3];
+        for (int i = 0 ; i < triangulation.size() ; i++) {
+            Triangle triangle = triangulation.get(i);
+            triangles[i * 3]     = triangle.a;
+            triangles[i * 3 + 1] = triangle.b;
+            triangles[i * 3 + 2] = triangle.c;
+        }
+    }
+
+
+    // ******************** Methods *******************************************
+    public int getNoOfTriangles() { return triangles.length / 3; }
+
+    /**
+     * @param TRIANGLE index of the triangle
+     * @param CORNER corner of the triangle (0, 1 or 2)
+     * @return the index of the point at the given corner of the triangle
+     */
+    public int getCorner(final int TRIANGLE, final int CORNER) { return triangles[TRIANGLE * 3 + CORNER]; }
+
+    // Edges that are shared by two removed triangles are inside of the hole and are removed
+    private static void addEdge(final List<int[]> EDGES, final int A, final int B) {
+        for (int i = 0 ; i < EDGES.size() ; i++) {
+            int[] edge = EDGES.get(i);
+            if ((edge[0] == A && edge[1] == B) || (edge[0] == B && edge[1] == A)) {
+                EDGES.set(i, EDGES.get(EDGES.size() - 1));
+                EDGES.remove(EDGES.size() - 1);
+                return;
+            }
+        }
+        EDGES.add(new int[] { A, B });
+    }
+
+
+    // ******************** Inner Classes *************************************
+    private static class Triangle {
+        private final int    a;
+        private final int    b;
+        private final int    c;
+        private final double centerX;
+        private final double centerY;
+        private final double radiusSquared;
+
+
+        // ******************** Constructors **********************************
+        Triangle(final int A, final int B, final int C, final double[] XS, final double[] YS) {
+            a = A;
+            b = B;
+            c = C;
+            final double ax = XS[A];
+            final double ay = YS[A];
+            final double bx = XS[B];
+            final double by = YS[B];
+            final double cx = XS[C];
+            final double cy = YS[C];
+            final double d  = 2 * (ax * (by - cy) + bx * (cy - ay) + cx * (ay - by));
+            if (Double.compare(d, 0) == 0) {
+                // Collinear corners, the triangle is replaced as soon as possible
+                centerX       = (ax + bx + cx) / 3;
+                centerY       = (ay + by + cy) / 3;
+                radiusSquared = Double.MAX_VALUE;
+            } else {
+                final double aa = ax * ax + ay * ay;
+                final double bb = bx * bx + by * by;
+                final double cc = cx * cx + cy * cy;
+                centerX       = (aa * (by - cy) + bb * (cy - ay) + cc * (ay - by)) / d;
+                centerY       = (aa * (cx - bx) + bb * (ax - cx) + cc * (bx - ax)) / d;
+                radiusSquared = (ax - centerX) * (ax - centerX) + (ay - centerY) * (ay - centerY);
+            }
+        }
+
+
+        // ******************** Methods ***************************************
+        boolean isInCircumcircle(final double X, final double Y) {
+            final double deltaX = X - centerX;
+            final double deltaY = Y - centerY;
+            return deltaX * deltaX + deltaY * deltaY < radiusSquared;
+        }
+    }
+}
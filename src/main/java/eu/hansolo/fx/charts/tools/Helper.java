@@ -38,7 +38,6 @@ import javafx.scene.paint.LinearGradient;
 import javafx.scene.paint.Stop;
 import javafx.scene.shape.Polygon;
 import javafx.scene.text.Font;
-import javafx.scene.text.Text;
 import javafx.scene.text.TextAlignment;
 
 import javax.imageio.ImageIO;
@@ -614,6 +613,27 @@ public class Helper {
         return (Color) Interpolator.LINEAR.interpolate(lowerStop.getColor(), upperStop.getColor(), interpolationFraction);
     }
 
+    /**
+     * Samples the given gradient at SIZE equidistant fractions from 0 to 1 and
+     * returns the colors as non premultiplied ARGB values (PixelFormat.getIntArgbInstance()).
+     * Used to colorize images with a table lookup instead of calling getColorAt() per pixel.
+     * @param GRADIENT
+     * @param SIZE
+     * @return the gradient colors as ARGB int values
+     */
+    public static final int[] createColorLookupTable(final LinearGradient GRADIENT, final int SIZE) {
+        int[] lookupTable = new int[Math.max(2, SIZE)];
+        int   last        = lookupTable.length - 1;
+        for (int i = 0 ; i <= last ; i++) {
+            Color color = getColorAt(GRADIENT, (double) i / last);
+            lookupTable[i] = ((int) Math.round(color.getOpacity() * 255) << 24) |
+                             ((int) Math.round(color.getRed() * 255)     << 16) |
+                             ((int) Math.round(color.getGreen() * 255)   << 8)  |
+                              (int) Math.round(color.getBlue() * 255);
+        }
+        return lookupTable;
+    }
+
     public static final String format(final double NUMBER, final int DECIMALS) {
         return format(NUMBER, clamp(0, 12, DECIMALS), Locale.US);
     }
@@ -943,13 +963,8 @@ public class Helper {
     }
 
     public static final CtxDimension getTextDimension(final String TEXT, final Font FONT) {
-        Text text = new Text(TEXT);
-        text.setFont(FONT);
-        double textWidth  = text.getBoundsInLocal().getWidth();
-        double textHeight = text.getBoundsInLocal().getHeight();
-        text = null;
-        CtxDimension dim = new CtxDimension(textWidth, textHeight);
-        return dim;
+        final CtxDimension CACHED = TextMetrics.getTextDimension(TEXT, FONT);
+        return new CtxDimension(CACHED.getWidth(), CACHED.getHeight());
     }
 
     public static final void drawTextWithBackground(final GraphicsContext CTX, final String TEXT, final Font FONT, final Color TEXT_BACKGROUND, final Color TEXT_FILL, final double X, final double Y) {
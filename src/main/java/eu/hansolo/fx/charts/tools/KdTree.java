@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.charts.tools;
+
+import java.util.List;
+
+
+/**
+ * Static 2d tree of points for k nearest neighbour queries.
+ * The tree is stored implicitly in an index array, the median of each range
+ * is the node and the left and right part of the range are its subtrees.
+ * Building costs O(n log n), a query for the k nearest points O(k log n) on
+ * average. The tree can't be modified after it was built, queries are thread
+ * safe as long as every thread uses its own Neighbors instance.
+ */
+public class KdTree {
+    private final double[] xs;
+    private final double[] ys;
+    private final int[]    tree;
+
+
+    // ******************** Constructors **************************************
+    public KdTree(final List<? extends Point> POINTS) {
+        final int size = POINTS.size();
+        xs   = new double[size];
+        ys   = new double[size];
+        tree = new int[size];
+        for (int i = 0 ; i < size ; i++) {
+            Point point = POINTS.get(i);
+            xs[i]   = point.getX();
+            ys[i]   = point.getY();
+            tree[i] = i;
+        }
+        build(0, size, 0);
+    }
+
+
+    // ******************** Methods *******************************************
+    public int size() { return tree.length; }
+
+    /**
+     * Finds the K points that are closest to the given position.
+     * @param X x coordinate of the position
+     * @param Y y coordinate of the position
+     * @param K number of points to find (will be limited to the number of points)
+     * @param NEIGHBORS receives the indices (in the list that was used to build the tree) and the squared distances
+     */
+    public void nearest(final double X, final double Y, final int K, final Neighbors NEIGHBORS) {
+        NEIGHBORS.reset(Math.min(K, tree.length));
+        if (NEIGHBORS.capacity == 0) { return; }
+        search(0, tree.length, 0, X, Y, NEIGHBORS);
+    }
+
+    private void search(final int FROM, final int TO, final int DEPTH, final double X, final double Y, final Neighbors NEIGHBORS) {
+        if (FROM >= TO) { return; }
+        final int    mid    = (FROM + TO) >>> 1;
+        final int    index  = tree[mid];
+        final double deltaX = X - xs[index];
+        final double deltaY = Y - ys[index];
+        NEIGHBORS.offer(index, deltaX * deltaX + deltaY * deltaY);
+
+        final double delta = DEPTH % 2 == 0 ? deltaX : deltaY;
+        if (delta < 0) {
+            search(FROM, mid, DEPTH + 1, X, Y, NEIGHBORS);
+            if (delta * delta < NEIGHBORS.getMaxDistance()) { search(mid + 1, TO, DEPTH + 1, X, Y, NEIGHBORS); }
+        } else {
+            search(mid + 1, TO, DEPTH + 1, X, Y, NEIGHBORS);
+            if (delta * delta < NEIGHBORS.getMaxDistance()) { search(FROM, mid, DEPTH + 1, X, Y, NEIGHBORS); }
+        }
+    }
+
+    private void build(final int FROM, final int TO, final int DEPTH) {
+        if (TO - FROM <= 1) { return; }
+        final int      mid    = (FROM + TO) >>> 1;
+        final double[] coords = DEPTH % 2 == 0 ? xs : ys;
+        select(FROM, TO - 1, mid, coords);
+        build(FROM, mid, DEPTH + 1);
+        build(mid + 1, TO, DEPTH + 1);
+    }
+
+    // Quickselect, afterwards the element at K is in its sorted position and the range is partitioned around it
+    private void select(int left, int right, final int K, final double[] COORDS) {
+        while (right > left) {
+            final double pivot = COORDS[tree[(left + right) >>> 1]];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (COORDS[tree[i]] < pivot) { i++; }
+                while (COORDS[tree[j]] > pivot) { j--; }
+                if (i <= j) {
+                    swap(i, j);
+                    i++;
+                    j--;
+                }
+            }
+            if (K <= j) {
+                right = j;
+            } else if (K >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void swap(final int I, final int J) {
+        final int tmp = tree[I];
+        tree[I] = tree[J];
+        tree[J] = tmp;
+    }
+
+
+    // ******************** Inner Classes *************************************
+    /**
+     * Result of a query, a bounded max heap of the closest points found so far.
+     * Reuse one instance per thread to avoid allocations per query.
+     */
+    public static class Neighbors {
+        private int[]    indices;
+        private double[] distances;
+        private int      capacity;
+        private int      size;
+
+
+        // ******************** Constructors **********************************
+        public Neighbors() {
+            indices   = new int[8];
+            distances = new double[8];
+        }
+
+
+        // ******************** Methods ***************************************
+        public int size() { return size; }
+
+        // Index of the i-th neighbor (not sorted by distance) in the list that was used to build the tree
+        public int getIndex(final int I) { return indices[I]; }
+
+        // Squared distance of the i-th neighbor (not sorted by distance)
+        public double getDistance(final int I) { return distances[I]; }
+
+        private double getMaxDistance() { return size < capacity ? Double.MAX_VALUE : distances[0]; }
+
+        private void reset(final int CAPACITY) {
+            if (indices.length < CAPACITY) {
+                indices   = new int[CAPACITY];
+                distances = new double[CAPACITY];
+            }
+            capacity = CAPACITY;
+            size     = 0;
+        }
+
+        private void offer(final int INDEX, final double DISTANCE) {
+            if (size < capacity) {
+                // Sift up
+                int i = size++;
+                while (i > 0) {
+                    int parent = (i - 1) >>> 1;
+                    if (distances[parent] >= DISTANCE) { break; }
+                    indices[i]   = indices[parent];
+                    distances[i] = distances[parent];
+                    i = parent;
+                }
+                indices[i]   = INDEX;
+                distances[i] = DISTANCE;
+            } else if (DISTANCE < distances[0]) {
+                // Replace the farthest and sift down
+                int i = 0;
+                while (true) {
+                    int child = 2 * i + 1;
+                    if (child >= size) { break; }
+                    if (child + 1 < size && distances[child + 1] > distances[child]) { child++; }
+                    if (distances[child] <= DISTANCE) { break; }
+                    indices[i]   = indices[child];
+                    distances[i] = distances[child];
+                    i = child;
+                }
+                indices[i]   = INDEX;
+                distances[i] = DISTANCE;
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package eu.hansolo.fx.charts.tools;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+
+/**
+ * Splits the rows of an image into bands and processes them in parallel
+ * on the common fork join pool. The calling thread works on one of the
+ * bands and the method only returns after all bands are done, so the task
+ * can write into a shared buffer that is published afterwards with one
+ * PixelWriter.setPixels() call on the FX application thread.
+ * Small images are processed on the calling thread because splitting them
+ * costs more than it saves. The task must only write to the rows of its band.
+ */
+public class RowBands {
+    public static final int MIN_PIXELS_PER_BAND = 32_768;
+    public static final int BANDS_PER_THREAD    = 4;
+
+
+    // ******************** Constructors **************************************
+    private RowBands() {}
+
+
+    // ******************** Methods *******************************************
+    @FunctionalInterface public interface BandTask {
+        /**
+         * @param FROM_ROW first row of the band (inclusive)
+         * @param TO_ROW last row of the band (exclusive)
+         */
+        void process(int FROM_ROW, int TO_ROW);
+    }
+
+    /**
+     * @param ROWS number of rows
+     * @param COLUMNS number of pixels per row, tasks that are more expensive per pixel can pass a multiple of it
+     * @param TASK task that processes one band of rows
+     */
+    public static void process(final int ROWS, final int COLUMNS, final BandTask TASK) {
+        final int bands = getNoOfBands(ROWS, COLUMNS);
+        if (bands <= 1) {
+            if (ROWS > 0) { TASK.process(0, ROWS); }
+            return;
+        }
+        IntStream.range(0, bands).parallel().forEach(band -> TASK.process((int) ((long) band * ROWS / bands), (int) ((long) (band + 1) * ROWS / bands)));
+    }
+
+    public static int getNoOfBands(final int ROWS, final int COLUMNS) {
+        final int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        if (parallelism <= 1 || ROWS <= 1) { return 1; }
+        final long pixels = (long) ROWS * Math.max(1, COLUMNS);
+        return (int) Math.max(1, Math.min(Math.min(ROWS, parallelism * BANDS_PER_THREAD), pixels / MIN_PIXELS_PER_BAND));
+    }
+}
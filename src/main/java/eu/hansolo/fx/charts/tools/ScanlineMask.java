@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.charts.tools;
+
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * Polygon rasterized into spans of scanlines at integer y coordinates.
+ * Whether a point on a scanline is inside the polygon is a check of the
+ * few spans of its scanline instead of a test of all edges of the polygon.
+ * Uses the same even odd rule as Helper.isInPolygon(), so for points on
+ * the scanlines both give the same result. Scanlines outside of the mask
+ * are outside of the polygon.
+ */
+public class ScanlineMask {
+    private final int      rows;
+    private final int[]    offsets;
+    private final double[] crossings;
+
+
+    // ******************** Constructors **************************************
+    /**
+     * @param POLYGON points of the polygon
+     * @param ROWS number of scanlines, starting at y = 0
+     */
+    public ScanlineMask(final List<? extends Point> POLYGON, final int ROWS) {
+        final int      noOfPoints = POLYGON.size();
+        final double[] xs         = new double[noOfPoints];
+        final double[] ys         = new double[noOfPoints];
+        for (int i = 0 ; i < noOfPoints ; i++) {
+            xs[i] = POLYGON.get(i).getX();
+            ys[i] = POLYGON.get(i).getY();
+        }
+        rows    = Math.max(0, ROWS);
+        offsets = new int[rows + 1];
+
+        // Count the crossings per scanline, an edge crosses all scanlines with min y <= y < max y
+        for (int i = 0, j = noOfPoints - 1 ; i < noOfPoints ; j = i++) {
+            int from = getFirstRow(ys[i], ys[j]);
+            int to   = getLastRow(ys[i], ys[j]);
+            for (int y = from ; y <= to ; y++) { offsets[y + 1]++; }
+        }
+        for (int y = 0 ; y < rows ; y++) { offsets[y + 1] += offsets[y]; }
+
+        crossings = new double[offsets[rows]];
+        final int[] fill = Arrays.copyOf(offsets, rows);
+        for (int i = 0, j = noOfPoints - 1 ; i < noOfPoints ; j = i++) {
+            int from = getFirstRow(ys[i], ys[j]);
+            int to   = getLastRow(ys[i], ys[j]);
+            for (int y = from ; y <= to ; y++) {
+                crossings[fill[y]++] = (xs[j] - xs[i]) * (y - ys[i]) / (ys[j] - ys[i]) + xs[i];
+            }
+        }
+        for (int y = 0 ; y < rows ; y++) { Arrays.sort(crossings, offsets[y], offsets[y + 1]); }
+    }
+
+
+    // ******************** Methods *******************************************
+    public int getRows() { return rows; }
+
+    /**
+     * @param X x coordinate of the point
+     * @param Y scanline of the point
+     * @return true if the point is inside of the polygon
+     */
+    public boolean contains(final double X, final int Y) {
+        if (Y < 0 || Y >= rows) { return false; }
+        // Spans go from an even to the next odd crossing, the start is inside, the end is not
+        final int to = offsets[Y + 1];
+        for (int i = offsets[Y] ; i + 1 < to ; i += 2) {
+            if (X < crossings[i]) { return false; }
+            if (X < crossings[i + 1]) { return true; }
+        }
+        return false;
+    }
+
+    private int getFirstRow(final double Y1, final double Y2) { return (int) Math.max(0, Math.ceil(Math.min(Y1, Y2))); }
+
+    private int getLastRow(final double Y1, final double Y2) { return (int) Math.min(rows - 1, Math.ceil(Math.max(Y1, Y2)) - 1); }
+}
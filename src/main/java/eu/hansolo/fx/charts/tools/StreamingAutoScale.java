@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.charts.tools;
+
+
+/**
+ * Auto scale policy for axes that display streaming data.
+ * The range grows immediately in nice number steps (plus headroom) as soon as
+ * the data leaves it, but only shrinks after the data has used less than the
+ * shrink threshold of the range for longer than the shrink delay.
+ * As long as the data stays within these limits the range stays untouched and
+ * the axis does not have to be redrawn.
+ */
+public class StreamingAutoScale {
+    public static final double  DEFAULT_HEADROOM         = 0.1;
+    public static final double  DEFAULT_SHRINK_THRESHOLD = 0.5;
+    public static final long    DEFAULT_SHRINK_DELAY     = 5_000;
+    private             double  headroom;
+    private             double  shrinkThreshold;
+    private             long    shrinkDelay;
+    private             double  lowerBound;
+    private             double  upperBound;
+    private             double  minorTickSpace;
+    private             double  majorTickSpace;
+    private             long    shrinkCandidateSince;
+    private             boolean initialized;
+
+
+    // ******************** Constructors **************************************
+    public StreamingAutoScale() {
+        this(DEFAULT_HEADROOM, DEFAULT_SHRINK_THRESHOLD, DEFAULT_SHRINK_DELAY);
+    }
+    public StreamingAutoScale(final double HEADROOM, final double SHRINK_THRESHOLD, final long SHRINK_DELAY) {
+        headroom             = Helper.clamp(0.0, 1.0, HEADROOM);
+        shrinkThreshold      = Helper.clamp(0.0, 1.0, SHRINK_THRESHOLD);
+        shrinkDelay          = Math.max(0, SHRINK_DELAY);
+        shrinkCandidateSince = -1;
+        initialized          = false;
+    }
+
+
+    // ******************** Methods *******************************************
+    public double getHeadroom() { return headroom; }
+    public void setHeadroom(final double HEADROOM) { headroom = Helper.clamp(0.0, 1.0, HEADROOM); }
+
+    public double getShrinkThreshold() { return shrinkThreshold; }
+    public void setShrinkThreshold(final double THRESHOLD) { shrinkThreshold = Helper.clamp(0.0, 1.0, THRESHOLD); }
+
+    public long getShrinkDelay() { return shrinkDelay; }
+    public void setShrinkDelay(final long MILLISECONDS) { shrinkDelay = Math.max(0, MILLISECONDS); }
+
+    public double getLowerBound() { return lowerBound; }
+    public double getUpperBound() { return upperBound; }
+
+    public double getMinorTickSpace() { return minorTickSpace; }
+    public double getMajorTickSpace() { return majorTickSpace; }
+
+    public void reset() {
+        initialized          = false;
+        shrinkCandidateSince = -1;
+    }
+
+    /**
+     * Adjusts the range to the given data range.
+     * @param DATA_MIN minimum value of the currently visible data
+     * @param DATA_MAX maximum value of the currently visible data
+     * @param NOW_MILLIS current time in milliseconds
+     * @return true if lower or upper bound changed and the axis has to be redrawn
+     */
+    public boolean update(final double DATA_MIN, final double DATA_MAX, final long NOW_MILLIS) {
+        if (Double.isNaN(DATA_MIN) || Double.isNaN(DATA_MAX) || Double.isInfinite(DATA_MIN) || Double.isInfinite(DATA_MAX)) { return false; }
+        final double min = Math.min(DATA_MIN, DATA_MAX);
+        final double max = Math.max(DATA_MIN, DATA_MAX);
+
+        if (!initialized) {
+            initialized = true;
+            return fit(min, max);
+        }
+
+        // Grow immediately
+        if (min < lowerBound || max > upperBound) {
+            shrinkCandidateSince = -1;
+            return fit(Math.min(min, lowerBound), Math.max(max, upperBound));
+        }
+
+        // Shrink only if the data used too little of the range for longer than the shrink delay
+        final double range = upperBound - lowerBound;
+        if (range > 0 && (max - min) < range * shrinkThreshold) {
+            if (shrinkCandidateSince < 0) {
+                shrinkCandidateSince = NOW_MILLIS;
+            } else if (NOW_MILLIS - shrinkCandidateSince >= shrinkDelay) {
+                shrinkCandidateSince = -1;
+                return fit(min, max);
+            }
+        } else {
+            shrinkCandidateSince = -1;
+        }
+        return false;
+    }
+
+    private boolean fit(final double MIN, final double MAX) {
+        double range = MAX - MIN;
+        if (Double.compare(range, 0.0) == 0) { range = Double.compare(MAX, 0.0) == 0 ? 1 : Math.abs(MAX); }
+        final double   padding = range * headroom;
+        // Do not push a positive range below zero because of the headroom
+        final double   lower   = MIN >= 0 ? Math.max(0, MIN - padding) : MIN - padding;
+        final double   upper   = Math.max(MAX + padding, lower + range);
+        final double[] scale   = Helper.calcAutoScale(lower, upper);
+
+        final boolean changed = Double.compare(scale[2], lowerBound) != 0 || Double.compare(scale[3], upperBound) != 0;
+        minorTickSpace = scale[0];
+        majorTickSpace = scale[1];
+        lowerBound     = scale[2];
+        upperBound     = scale[3];
+        return changed;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.charts.tools;
+
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+
+/**
+ * Shared, bounded cache for text measurements.
+ * Every string is measured once with a single reused Text node, width and
+ * height are the layout bounds of the text, same as a Text node with the
+ * given font and text would report. Results are kept in an LRU map keyed
+ * by font and text.
+ */
+public class TextMetrics {
+    public  static final int                    MAX_CACHE_SIZE = 4096;
+    private static final Text                   MEASURE_TEXT   = new Text();
+    private static final Map<Key, CtxDimension> CACHE          = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override protected boolean removeEldestEntry(final Map.Entry<Key, CtxDimension> ELDEST) { return size() > MAX_CACHE_SIZE; }
+    };
+
+
+    // ******************** Constructors **************************************
+    private TextMetrics() {}
+
+
+    // ******************** Methods *******************************************
+    public static synchronized CtxDimension getTextDimension(final String TEXT, final Font FONT) {
+        final String text = null == TEXT ? "" : TEXT;
+        final Key    key  = new Key(FONT, text);
+        CtxDimension dim  = CACHE.get(key);
+        if (null == dim) {
+            MEASURE_TEXT.setFont(FONT);
+            MEASURE_TEXT.setText(text);
+            dim = new CtxDimension(MEASURE_TEXT.getLayoutBounds().getWidth(), MEASURE_TEXT.getLayoutBounds().getHeight());
+            CACHE.put(key, dim);
+        }
+        return dim;
+    }
+
+    public static double getTextWidth(final String TEXT, final Font FONT) { return getTextDimension(TEXT, FONT).getWidth(); }
+
+    public static double getTextHeight(final String TEXT, final Font FONT) { return getTextDimension(TEXT, FONT).getHeight(); }
+
+    public static synchronized void clear() { CACHE.clear(); }
+
+
+    // ******************** Inner Classes *************************************
+    private static class Key {
+        private final Font   font;
+        private final String text;
+        private final int    hash;
+
+
+        // ******************** Constructors **********************************
+        Key(final Font FONT, final String TEXT) {
+            font = FONT;
+            text = TEXT;
+            hash = Objects.hash(FONT, TEXT);
+        }
+
+
+        // ******************** Methods ***************************************
+        @Override public boolean equals(final Object OBJECT) {
+            if (this == OBJECT) { return true; }
+            if (!(OBJECT instanceof Key)) { return false; }
+            Key other = (Key) OBJECT;
+            return text.equals(other.text) && Objects.equals(font, other.font);
+        }
+
+        @Override public int hashCode() { return hash; }
+    }
+}
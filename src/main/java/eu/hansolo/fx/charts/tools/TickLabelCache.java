@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.charts.tools;
+
+import java.text.DecimalFormatSymbols;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+
+/**
+ * Caches formatted tick label strings of an axis.
+ * Number labels are keyed by value and are only valid for the current format
+ * string and locale, date time labels are keyed by epoch seconds and are only
+ * valid for the current formatter and zone. Changing one of them clears the
+ * affected labels, shifting the range of an axis reuses all labels that are
+ * still visible.
+ * Number formats of the form "%.nf" are formatted without java.util.Formatter.
+ * The labels are stored in direct mapped tables keyed by the bits of the value,
+ * so a lookup does not box the value. A label that maps to an occupied slot
+ * replaces the label in that slot.
+ */
+public class TickLabelCache {
+    public  static final int     MAX_SIZE              = 512; // Has to be a power of 2
+    private static final Pattern FIXED_DECIMALS        = Pattern.compile("%\\.(\\d{1,2})f");
+    private static final long[]  POWERS_OF_TEN         = { 1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L,
+                                                           10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L };
+    private static final double  MAX_FAST_PATH_VALUE   = 1e12;
+    private static final double  TIE_TOLERANCE         = 1e-3;
+    private        final LabelTable          numberLabels;
+    private        final LabelTable          timeLabels;
+    private        final LabelTable          dateTimeLabels;
+    private              String              formatString;
+    private              Locale              locale;
+    private              int                 decimals;
+    private              char                decimalSeparator;
+    private              DateTimeFormatter   dateTimeFormatter;
+    private              ZoneId              zoneId;
+    private              ZoneOffset          zoneOffset;
+    private              long                hitCount;
+    private              long                missCount;
+
+
+    // ******************** Constructors **************************************
+    public TickLabelCache() {
+        numberLabels   = new LabelTable();
+        timeLabels     = new LabelTable();
+        dateTimeLabels = new LabelTable();
+        decimals       = -1;
+    }
+
+
+    // ******************** Methods *******************************************
+    public void setNumberFormat(final String FORMAT_STRING, final Locale LOCALE) {
+        if (Objects.equals(formatString, FORMAT_STRING) && Objects.equals(locale, LOCALE)) { return; }
+        formatString = FORMAT_STRING;
+        locale       = LOCALE;
+        decimals     = -1;
+        numberLabels.clear();
+
+        Matcher matcher = FIXED_DECIMALS.matcher(null == FORMAT_STRING ? "" : FORMAT_STRING);
+        if (null != LOCALE && matcher.matches()) {
+            DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(LOCALE);
+            int                  digits  = Integer.parseInt(matcher.group(1));
+            // Only use the fast path for locales that use ASCII digits
+            if ('0' == symbols.getZeroDigit() && digits < POWERS_OF_TEN.length) {
+                decimals         = digits;
+                decimalSeparator = symbols.getDecimalSeparator();
+            }
+        }
+    }
+
+    public void setDateTimeFormat(final DateTimeFormatter FORMATTER, final ZoneId ZONE_ID) {
+        if (FORMATTER == dateTimeFormatter && Objects.equals(zoneId, ZONE_ID)) { return; }
+        dateTimeFormatter = FORMATTER;
+        zoneId            = ZONE_ID;
+        dateTimeLabels.clear();
+    }
+
+    public void setZoneOffset(final ZoneOffset ZONE_OFFSET) {
+        if (Objects.equals(zoneOffset, ZONE_OFFSET)) { return; }
+        zoneOffset = ZONE_OFFSET;
+        timeLabels.clear();
+    }
+
+    public String formatNumber(final double VALUE) {
+        final long key   = Double.doubleToLongBits(VALUE);
+        String     label = numberLabels.get(key);
+        if (null == label) {
+            missCount++;
+            label = decimals < 0 ? String.format(locale, formatString, VALUE) : formatFixed(VALUE);
+            numberLabels.put(key, label);
+        } else {
+            hitCount++;
+        }
+        return label;
+    }
+
+    public String formatTime(final double VALUE) {
+        final long key   = Double.doubleToLongBits(VALUE);
+        String     label = timeLabels.get(key);
+        if (null == label) {
+            missCount++;
+            label = Helper.secondsToHHMMString(Helper.toSeconds(Helper.toRealValue(VALUE), zoneOffset));
+            timeLabels.put(key, label);
+        } else {
+            hitCount++;
+        }
+        return label;
+    }
+
+    public String formatDateTime(final long EPOCH_SECONDS) {
+        String label = dateTimeLabels.get(EPOCH_SECONDS);
+        if (null == label) {
+            missCount++;
+            label = dateTimeFormatter.format(LocalDateTime.ofInstant(Instant.ofEpochSecond(EPOCH_SECONDS), zoneId));
+            dateTimeLabels.put(EPOCH_SECONDS, label);
+        } else {
+            hitCount++;
+        }
+        return label;
+    }
+
+    // Number of labels that were taken from the cache and that had to be formatted since the creation of the cache
+    public long getHitCount() { return hitCount; }
+    public long getMissCount() { return missCount; }
+
+    public void clear() {
+        numberLabels.clear();
+        timeLabels.clear();
+        dateTimeLabels.clear();
+    }
+
+    // Same output as String.format(locale, "%.nf", VALUE) without creating a Formatter.
+    // String.format rounds the shortest decimal representation of the value half up, rounding the
+    // scaled double can differ from that on ties (e.g. 1.005), values close to a tie use String.format.
+    private String formatFixed(final double VALUE) {
+        final double absValue    = Math.abs(VALUE);
+        final double scaledValue = absValue * POWERS_OF_TEN[decimals];
+        if (Double.isNaN(VALUE) || Double.isInfinite(VALUE) || scaledValue >= MAX_FAST_PATH_VALUE ||
+            Math.abs(scaledValue - Math.floor(scaledValue) - 0.5) < TIE_TOLERANCE) {
+            return String.format(locale, formatString, VALUE);
+        }
+        final long          factor   = POWERS_OF_TEN[decimals];
+        final long          scaled   = Math.round(scaledValue);
+        final long          integer  = scaled / factor;
+        final long          fraction = scaled % factor;
+        final StringBuilder builder  = new StringBuilder(24);
+        if (Double.doubleToRawLongBits(VALUE) < 0) { builder.append('-'); }
+        builder.append(integer);
+        if (decimals > 0) {
+            builder.append(decimalSeparator);
+            String fractionString = Long.toString(fraction);
+            for (int i = fractionString.length() ; i < decimals ; i++) { builder.append('0'); }
+            builder.append(fractionString);
+        }
+        return builder.toString();
+    }
+
+
+
+    // ******************** Inner Classes *************************************
+    private static class LabelTable {
+        private final long[]   keys   = new long[MAX_SIZE];
+        private final String[] labels = new String[MAX_SIZE];
+
+
+        String get(final long KEY) {
+            final int index = indexOf(KEY);
+            return keys[index] == KEY ? labels[index] : null;
+        }
+
+        void put(final long KEY, final String LABEL) {
+            final int index = indexOf(KEY);
+            keys[index]   = KEY;
+            labels[index] = LABEL;
+        }
+
+        void clear() { Arrays.fill(labels, null); }
+
+        private static int indexOf(final long KEY) {
+            // Spread the bits, the low bits of doubles are often zero
+            long hash = KEY * 0x9E3779B97F4A7C15L;
+            return (int) (hash >>> 32) & (MAX_SIZE - 1);
+        }
+    }
+}
@@ -529,6 +529,21 @@ public class World extends Region {
      */
     public void clearHeatMap() { heatMap.clearHeatMap(); }
 
+    /**
+     * Returns the half life in milliseconds of the events, 0 means that
+     * events don't fade out
+     * @return the half life in milliseconds of the events
+     */
+    public long getHalfLife() { return heatMap.getHalfLife(); }
+
+    /**
+     * If the half life is larger than 0 the contribution of each event
+     * to the heat map halves after the given time, so a continuous stream
+     * of events shows the recent activity. A half life of 0 disables fading.
+     * @param MILLISECONDS
+     */
+    public void setHalfLife(final long MILLISECONDS) { heatMap.setHalfLife(MILLISECONDS); }
+
     /**
      * Returns the used color mapping with the gradient that is used
      * to visualize the data
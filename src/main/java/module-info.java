@@ -3,6 +3,7 @@ module charts {
     // Java
     requires java.base;
     requires java.logging;
+    requires static jdk.jfr;
 
     // Java-FX
     requires javafx.base;
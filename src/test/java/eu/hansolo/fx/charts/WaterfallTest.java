@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.charts;
+
+import eu.hansolo.fx.charts.data.MatrixChartItem;
+import eu.hansolo.fx.charts.series.MatrixItemSeries;
+import eu.hansolo.fx.charts.tools.ColorMapping;
+import javafx.animation.AnimationTimer;
+import javafx.application.Application;
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+
+/**
+ * Streams a spectrum of 1024 bins into a waterfall of 320 columns that is
+ * 900 px wide, so each column shows the peak of 3.2 bins and is 2.8125 px
+ * wide. The second waterfall has more columns than pixels.
+ */
+public class WaterfallTest extends Application {
+    private static final Random RND        = new Random();
+    private static final int    NO_OF_BINS = 1024;
+    private static final int    COLS       = 320;
+    private static final int    ROWS       = 150;
+
+    private MatrixItemSeries<MatrixChartItem> waterfallSeries1;
+    private MatrixPane<MatrixChartItem>       waterfall1;
+
+    private MatrixItemSeries<MatrixChartItem> waterfallSeries2;
+    private MatrixPane<MatrixChartItem>       waterfall2;
+
+    private double[]                          spectrum;
+    private double                            phase;
+    private long                              lastTimerCall;
+    private AnimationTimer                    timer;
+
+
+    @Override public void init() {
+        spectrum = new double[NO_OF_BINS];
+
+        waterfallSeries1 = new MatrixItemSeries<>(new ArrayList<>(), ChartType.WATERFALL);
+        waterfall1       = new MatrixPane<>(waterfallSeries1);
+        waterfall1.setColorMapping(ColorMapping.INFRARED_1);
+        waterfall1.setLowerBoundZ(0);
+        waterfall1.setUpperBoundZ(1);
+        waterfall1.getMatrix().setUseSpacer(false);
+        waterfall1.getMatrix().setColsAndRows(COLS, ROWS);
+        waterfall1.setPrefSize(900, 300);
+
+        waterfallSeries2 = new MatrixItemSeries<>(new ArrayList<>(), ChartType.WATERFALL);
+        waterfall2       = new MatrixPane<>(waterfallSeries2);
+        waterfall2.setColorMapping(ColorMapping.INFRARED_1);
+        waterfall2.setLowerBoundZ(0);
+        waterfall2.setUpperBoundZ(1);
+        waterfall2.getMatrix().setUseSpacer(false);
+        waterfall2.getMatrix().setColsAndRows(NO_OF_BINS, ROWS);
+        waterfall2.setPrefSize(900, 300);
+
+        lastTimerCall = System.nanoTime();
+        timer = new AnimationTimer() {
+            @Override public void handle(final long now) {
+                if (now > lastTimerCall + 20_000_000l) {
+                    // Noise floor with two carriers, one of them drifting
+                    double drift = NO_OF_BINS * (0.5 + 0.35 * Math.sin(phase));
+                    for (int i = 0 ; i < NO_OF_BINS ; i++) {
+                        double value = RND.nextDouble() * 0.15;
+                        value += 0.8 * Math.exp(-Math.pow(i - NO_OF_BINS * 0.1, 2) / 2);
+                        value += 0.7 * Math.exp(-Math.pow(i - drift, 2) / 8);
+                        spectrum[i] = Math.min(1, value);
+                    }
+                    waterfall1.appendRow(spectrum);
+                    waterfall2.appendRow(spectrum);
+                    phase += 0.02;
+                    lastTimerCall = now;
+                }
+            }
+        };
+    }
+
+    @Override public void start(Stage stage) {
+        VBox pane = new VBox(10, waterfall1, waterfall2);
+        pane.setPadding(new Insets(10));
+
+        Scene scene = new Scene(pane);
+
+        stage.setTitle("Waterfall");
+        stage.setScene(scene);
+        stage.show();
+
+        timer.start();
+    }
+
+    @Override public void stop() {
+        System.exit(0);
+    }
+
+    public static void main(String[] args) {
+        launch(args);
+    }
+}